@@ -0,0 +1,30 @@
+package restaurantmanager;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+public final class InMemoryDao {
+	
+	private InMemoryDao() {
+	}
+	
+	// every query returning a list answers with all rows, which is what the benchmarked list paths read
+	@SuppressWarnings("unchecked")
+	public static <T> T of(final Class<T> daoType, final List<?> rows) {
+		return (T) Proxy.newProxyInstance(daoType.getClassLoader(), new Class<?>[]{daoType}, (proxy, method, args) -> {
+			if (List.class.isAssignableFrom(method.getReturnType())) {
+				return rows;
+			}
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "InMemoryDao(" + daoType.getSimpleName() + ", rows=" + rows.size() + ")";
+				default:
+					throw new UnsupportedOperationException(method.getName() + " is not supported by in-memory " + daoType.getSimpleName());
+			}
+		});
+	}
+}
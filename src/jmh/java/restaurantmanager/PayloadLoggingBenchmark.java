@@ -0,0 +1,143 @@
+package restaurantmanager;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static restaurantmanager.PayloadLogging.PAYLOAD;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import restaurantmanager.product.ProductDto;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadLoggingBenchmark {
+	
+	@Param({"10", "1000"})
+	private int rows;
+	
+	@Param({"0.001"})
+	private double payloadSampleRate;
+	
+	private List<ProductDto> products;
+	private LoggerContext loggerContext;
+	private Logger syncLogger;
+	private Logger asyncLogger;
+	
+	@Setup
+	public void setUp() {
+		this.products = LongStream.rangeClosed(1L, this.rows)
+				.mapToObj(PayloadLoggingBenchmark::createProduct)
+				.collect(toUnmodifiableList());
+		
+		this.loggerContext = new LoggerContext();
+		final var samplingFilter = new PayloadSamplingFilter();
+		samplingFilter.setContext(this.loggerContext);
+		samplingFilter.start();
+		this.loggerContext.addTurboFilter(samplingFilter);
+		
+		// formatting and encoding are measured, only the final write goes nowhere
+		final var encoder = new PatternLayoutEncoder();
+		encoder.setContext(this.loggerContext);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%thread] %logger{39} : %msg%n");
+		encoder.start();
+		final var appender = new OutputStreamAppender<ILoggingEvent>();
+		appender.setContext(this.loggerContext);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+		
+		final var asyncAppender = new AsyncAppender();
+		asyncAppender.setContext(this.loggerContext);
+		asyncAppender.setQueueSize(8192);
+		asyncAppender.setDiscardingThreshold(0);
+		asyncAppender.setNeverBlock(true);
+		asyncAppender.addAppender(appender);
+		asyncAppender.start();
+		
+		this.syncLogger = this.createLogger("sync", appender);
+		this.asyncLogger = this.createLogger("async", asyncAppender);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		this.loggerContext.stop();
+	}
+	
+	@Benchmark
+	public void fullPayloadAtInfo() {
+		this.syncLogger.info("Received products={}", this.products);
+	}
+	
+	@Benchmark
+	public void countAtInfoWithSampledPayload() {
+		this.logSampledRequest(this.syncLogger);
+	}
+	
+	@Benchmark
+	public void countAtInfoWithSampledPayloadAsync() {
+		this.logSampledRequest(this.asyncLogger);
+	}
+	
+	private void logSampledRequest(final Logger logger) {
+		// every invocation stands for one request, sampled the way PayloadSamplingRequestFilter does it
+		final var sampled = ThreadLocalRandom.current().nextDouble() < this.payloadSampleRate;
+		if (sampled) {
+			MDC.put(PayloadLogging.SAMPLED_REQUEST, Boolean.TRUE.toString());
+		}
+		try {
+			logger.info("Received products count={}", this.products.size());
+			logger.debug(PAYLOAD, "Received products={}", this.products);
+		} finally {
+			MDC.remove(PayloadLogging.SAMPLED_REQUEST);
+		}
+	}
+	
+	private Logger createLogger(final String name, final Appender<ILoggingEvent> appender) {
+		final var logger = this.loggerContext.getLogger(name);
+		logger.setLevel(Level.INFO);
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+		return logger;
+	}
+	
+	private static ProductDto createProduct(final long id) {
+		return ProductDto.builder()
+				.id(id)
+				.name("Product " + id)
+				.category("category-" + id % 10)
+				.description("Description of product " + id)
+				.price(BigDecimal.valueOf(id % 100 + 10, 2))
+				.productType(id % 2 == 0 ? "food" : "drink")
+				.build();
+	}
+}
@@ -0,0 +1,94 @@
+package restaurantmanager.board;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.InMemoryDao;
+import restaurantmanager.KeysetPagination;
+import restaurantmanager.booking.BookingDao;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+	
+	@Param({"10", "1000", "100000"})
+	private int rows;
+	
+	private List<Board> boards;
+	private List<BoardDto> boardDtos;
+	private BoardService boardService;
+	private ObjectMapper objectMapper;
+	
+	@Setup
+	public void setUp() {
+		this.boards = LongStream.rangeClosed(1L, this.rows)
+				.mapToObj(BoardBenchmark::createBoard)
+				.collect(toUnmodifiableList());
+		this.boardDtos = this.boards.stream()
+				.map(BoardMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+		// the unpaged list refuses more rows than the cap, so getAllBoards stops at the largest list it still serves
+		final var boardDao = InMemoryDao.of(BoardDao.class, this.boards.subList(0, Math.min(this.rows, KeysetPagination.MAX_UNPAGED_ROWS)));
+		this.boardService = new BoardService(boardDao,
+											 new AvailabilityEngine(boardDao, InMemoryDao.of(BookingDao.class, List.of()), 15, 120, 62, 30L),
+											 Mockito.mock(EntityCacheEvictor.class),
+											 new CollectionVersions(),
+											 Mockito.mock(ApplicationEventPublisher.class),
+											 Mockito.mock(CacheInvalidationBus.class));
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	}
+	
+	@Benchmark
+	public void mapBoards(final Blackhole blackhole) {
+		for (final var board : this.boards) {
+			blackhole.consume(BoardMapper.INSTANCE.map(board));
+		}
+	}
+	
+	@Benchmark
+	public List<BoardDto> getAllBoards() {
+		return this.boardService.getAllBoards();
+	}
+	
+	@Benchmark
+	public byte[] serializeBoards() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.boardDtos);
+	}
+	
+	private static Board createBoard(final long id) {
+		return Board.builder()
+				.id(id)
+				.numberOfSeats(2L + id % 6)
+				.boardDescription("Board " + id)
+				.build();
+	}
+}
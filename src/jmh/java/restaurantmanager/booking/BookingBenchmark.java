@@ -0,0 +1,102 @@
+package restaurantmanager.booking;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.InMemoryDao;
+import restaurantmanager.KeysetPagination;
+import restaurantmanager.board.AvailabilityEngine;
+import restaurantmanager.board.BoardDao;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmark {
+	
+	@Param({"10", "1000", "100000"})
+	private int rows;
+	
+	private List<Booking> bookings;
+	private List<BookingDto> bookingDtos;
+	private BookingService bookingService;
+	private ObjectMapper objectMapper;
+	
+	@Setup
+	public void setUp() {
+		this.bookings = LongStream.rangeClosed(1L, this.rows)
+				.mapToObj(BookingBenchmark::createBooking)
+				.collect(toUnmodifiableList());
+		this.bookingDtos = this.bookings.stream()
+				.map(BookingMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+		// getAllBookings is capped like the endpoint, mapping and serialization still run over all rows
+		final var bookingDao = InMemoryDao.of(BookingDao.class, this.bookings.subList(0, Math.min(this.rows, KeysetPagination.MAX_UNPAGED_ROWS)));
+		final var availabilityEngine = new AvailabilityEngine(InMemoryDao.of(BoardDao.class, List.of()), bookingDao, 15, 120, 62, 30L);
+		this.bookingService = new BookingService(bookingDao,
+												 availabilityEngine,
+												 new BookingConflictGuard(bookingDao, 120, 64),
+												 Mockito.mock(ApplicationEventPublisher.class),
+												 Mockito.mock(CacheInvalidationBus.class));
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	}
+	
+	@Benchmark
+	public void mapBookings(final Blackhole blackhole) {
+		for (final var booking : this.bookings) {
+			blackhole.consume(BookingMapper.INSTANCE.map(booking));
+		}
+	}
+	
+	@Benchmark
+	public List<BookingDto> getAllBookings() {
+		return this.bookingService.getAllBookings();
+	}
+	
+	@Benchmark
+	public byte[] serializeBookings() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.bookingDtos);
+	}
+	
+	private static Booking createBooking(final long id) {
+		return Booking.builder()
+				.id(id)
+				.bookingDate(LocalDate.of(2022, 1, 1).plusDays(id % 365))
+				.bookingTime(LocalTime.of(12 + (int) (id % 10), 0))
+				.createdAt(LocalDateTime.of(2021, 12, 1, 12, 0))
+				.boardId(id % 50 + 1)
+				.employeeId(id % 20 + 1)
+				.personalData("Guest " + id)
+				.phoneNumber("+48 600 000 " + id % 1000)
+				.description("Booking " + id)
+				.build();
+	}
+}
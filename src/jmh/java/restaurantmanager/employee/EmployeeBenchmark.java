@@ -0,0 +1,94 @@
+package restaurantmanager.employee;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.InMemoryDao;
+import restaurantmanager.KeysetPagination;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeBenchmark {
+	
+	@Param({"10", "1000", "100000"})
+	private int rows;
+	
+	private List<Employee> employees;
+	private List<EmployeeDto> employeeDtos;
+	private EmployeeService employeeService;
+	private ObjectMapper objectMapper;
+	
+	@Setup
+	public void setUp() {
+		this.employees = LongStream.rangeClosed(1L, this.rows)
+				.mapToObj(EmployeeBenchmark::createEmployee)
+				.collect(toUnmodifiableList());
+		this.employeeDtos = this.employees.stream()
+				.map(EmployeeMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+		// larger tables are only served page by page, so the unpaged list is measured up to the cap
+		final var employeeDao = InMemoryDao.of(EmployeeDao.class, this.employees.subList(0, Math.min(this.rows, KeysetPagination.MAX_UNPAGED_ROWS)));
+		this.employeeService = new EmployeeService(employeeDao, Mockito.mock(EntityCacheEvictor.class),
+												   Mockito.mock(CacheInvalidationBus.class));
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	}
+	
+	@Benchmark
+	public void mapEmployees(final Blackhole blackhole) {
+		for (final var employee : this.employees) {
+			blackhole.consume(EmployeeMapper.INSTANCE.map(employee));
+		}
+	}
+	
+	@Benchmark
+	public List<EmployeeDto> getAllEmployees() {
+		return this.employeeService.getAllEmployees();
+	}
+	
+	@Benchmark
+	public byte[] serializeEmployees() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.employeeDtos);
+	}
+	
+	private static Employee createEmployee(final long id) {
+		return Employee.builder()
+				.id(id)
+				.firstName("First" + id)
+				.lastName("Last" + id)
+				.email("employee" + id + "@restaurant.com")
+				.position(id % 3 == 0 ? "manager" : "waiter")
+				.salary(BigDecimal.valueOf(3000L + id % 1000))
+				.phoneNumber("+48 700 000 " + id % 1000)
+				.startDate(LocalDate.of(2020, 1, 1).plusDays(id % 700))
+				.build();
+	}
+}
@@ -0,0 +1,108 @@
+package restaurantmanager.product;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.InMemoryDao;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductBenchmark {
+	
+	@Param({"10", "1000", "100000"})
+	private int rows;
+	
+	private List<Product> products;
+	private List<ProductDto> productDtos;
+	private ProductService productService;
+	private ProductService cachedProductService;
+	private ObjectMapper objectMapper;
+	
+	@Setup
+	public void setUp() {
+		this.products = LongStream.rangeClosed(1L, this.rows)
+				.mapToObj(ProductBenchmark::createProduct)
+				.collect(toUnmodifiableList());
+		this.productDtos = this.products.stream()
+				.map(ProductMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+		final var productDao = InMemoryDao.of(ProductDao.class, this.products);
+		// cached views expire immediately, so every call maps the rows returned by the dao
+		final var entityCacheEvictor = Mockito.mock(EntityCacheEvictor.class);
+		final var productSearchIndex = new ProductSearchIndex(productDao, ProductSearchIndex.MEMORY_BACKEND);
+		final var collectionVersions = new CollectionVersions();
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		final var cacheInvalidationBus = Mockito.mock(CacheInvalidationBus.class);
+		this.productService = new ProductService(productDao, new ProductCache(0, 0L), entityCacheEvictor, productSearchIndex,
+												 collectionVersions, new MenuSnapshotCache(this.objectMapper), cacheInvalidationBus);
+		this.cachedProductService = new ProductService(productDao, new ProductCache(16, 3600L), entityCacheEvictor, productSearchIndex,
+													   collectionVersions, new MenuSnapshotCache(this.objectMapper), cacheInvalidationBus);
+	}
+	
+	@Benchmark
+	public void mapProducts(final Blackhole blackhole) {
+		for (final var product : this.products) {
+			blackhole.consume(ProductMapper.INSTANCE.map(product));
+		}
+	}
+	
+	@Benchmark
+	public List<ProductDto> getAllProducts() {
+		return this.productService.getAllProducts();
+	}
+	
+	@Benchmark
+	public List<ProductDto> getAllProductsCached() {
+		return this.cachedProductService.getAllProducts();
+	}
+	
+	@Benchmark
+	public byte[] serializeProducts() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.productDtos);
+	}
+	
+	@Benchmark
+	public byte[] getMenuSnapshotGzip() {
+		return this.cachedProductService.getMenuSnapshot().toResponse(MenuSnapshot.GZIP).getBody();
+	}
+	
+	private static Product createProduct(final long id) {
+		return Product.builder()
+				.id(id)
+				.name("Product " + id)
+				.category("category-" + id % 10)
+				.description("Description of product " + id)
+				.price(BigDecimal.valueOf(id % 100 + 10, 2))
+				.productType(id % 2 == 0 ? "food" : "drink")
+				.build();
+	}
+}
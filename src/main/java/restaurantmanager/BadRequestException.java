@@ -0,0 +1,14 @@
+package restaurantmanager;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+	
+	private static final long serialVersionUID = -2203589874650157416L;
+	
+	public BadRequestException(final String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,51 @@
+package restaurantmanager;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+public abstract class ByIdsLookup {
+	
+	public static final int MAX_IDS = 5000;
+	
+	// keeps the bind parameter count of a single in (...) query small
+	static final int CHUNK_SIZE = 500;
+	
+	public static <E, D> ByIdsDto<D> findInRequestOrder(final List<Long> ids,
+														final Function<List<Long>, List<E>> finder,
+														final Function<E, Long> idExtractor,
+														final Function<E, D> mapper) {
+		final var requestedIds = ids.stream()
+				.filter(Objects::nonNull)
+				.distinct()
+				.collect(toUnmodifiableList());
+		if (requestedIds.size() > MAX_IDS) {
+			throw new BadRequestException("Number of ids=" + requestedIds.size() + " must not exceed " + MAX_IDS);
+		}
+		
+		final var rowsById = new HashMap<Long, E>();
+		for (var from = 0; from < requestedIds.size(); from += CHUNK_SIZE) {
+			final var chunk = requestedIds.subList(from, Math.min(from + CHUNK_SIZE, requestedIds.size()));
+			finder.apply(chunk).forEach(row -> rowsById.put(idExtractor.apply(row), row));
+		}
+		
+		final var items = new ArrayList<D>(rowsById.size());
+		final var missingIds = new ArrayList<Long>();
+		for (final var id : requestedIds) {
+			final var row = rowsById.get(id);
+			if (row == null) {
+				missingIds.add(id);
+			} else {
+				items.add(mapper.apply(row));
+			}
+		}
+		return ByIdsDto.<D>builder()
+				.items(List.copyOf(items))
+				.missingIds(List.copyOf(missingIds))
+				.build();
+	}
+}
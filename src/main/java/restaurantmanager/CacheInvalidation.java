@@ -0,0 +1,31 @@
+package restaurantmanager;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Message sent between instances when a row changed, a missing id stands for the whole collection.
+ */
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@NoArgsConstructor(access = AccessLevel.PUBLIC)
+@Setter(value = AccessLevel.PUBLIC)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CacheInvalidation {
+	
+	private String origin;
+	private long sequence;
+	private String collection;
+	private Long id;
+	private List<String> keys;
+}
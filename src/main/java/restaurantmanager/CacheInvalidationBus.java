@@ -0,0 +1,204 @@
+package restaurantmanager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-process caches of all instances coherent by sending invalidations through Postgres NOTIFY. A
+ * notification is delivered when the transaction that sent it commits, so listeners never evict before the change is
+ * visible to them.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+	
+	static final String CHANNEL = "restaurantmanager_cache_invalidation";
+	
+	// sequences start again from one after a restart, the instance id tells the listeners it is a new sender
+	private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+	private final JdbcTemplate jdbcTemplate;
+	private final ObjectMapper objectMapper;
+	private final DataSourceProperties dataSourceProperties;
+	private final List<CacheInvalidationListener> listeners;
+	private final boolean enabled;
+	private final int pollTimeoutMillis;
+	private final long reconnectDelayMillis;
+	private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+	
+	private long sequence;
+	private volatile boolean running;
+	private Thread listenerThread;
+	
+	public CacheInvalidationBus(final JdbcTemplate jdbcTemplate,
+								final ObjectMapper objectMapper,
+								final DataSourceProperties dataSourceProperties,
+								final List<CacheInvalidationListener> listeners,
+								@Value("${restaurantmanager.cache-invalidation.enabled:false}") final boolean enabled,
+								@Value("${restaurantmanager.cache-invalidation.poll-timeout-millis:10000}") final int pollTimeoutMillis,
+								@Value("${restaurantmanager.cache-invalidation.reconnect-delay-millis:5000}") final long reconnectDelayMillis) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.objectMapper = objectMapper;
+		this.dataSourceProperties = dataSourceProperties;
+		this.listeners = listeners;
+		this.enabled = enabled;
+		this.pollTimeoutMillis = pollTimeoutMillis;
+		this.reconnectDelayMillis = reconnectDelayMillis;
+	}
+	
+	public void publish(final String collection, final Long id, final String... keys) {
+		this.send(collection, id, Arrays.asList(keys));
+	}
+	
+	public void publishAll(final String collection) {
+		this.send(collection, null, List.of());
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!this.enabled) {
+			log.info("Cache invalidation bus is disabled, caches are only evicted on the instance that changed a row");
+			return;
+		}
+		this.running = true;
+		this.listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+		this.listenerThread.setDaemon(true);
+		this.listenerThread.start();
+	}
+	
+	@PreDestroy
+	void stop() {
+		this.running = false;
+		if (this.listenerThread != null) {
+			this.listenerThread.interrupt();
+		}
+	}
+	
+	// sending is serialized and every caller sends outside of a transaction, so pg_notify is delivered right away and
+	// notifications of one instance arrive in sequence order; a sender inside a transaction would be delivered on its
+	// commit, after later sequences of other threads, and the listeners would flush their caches for a false gap
+	private synchronized void send(final String collection, final Long id, final List<String> keys) {
+		if (!this.enabled) {
+			return;
+		}
+		final var invalidation = CacheInvalidation.builder()
+				.origin(this.instanceId)
+				.sequence(++this.sequence)
+				.collection(collection)
+				.id(id)
+				.keys(keys)
+				.build();
+		try {
+			this.jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, this.objectMapper.writeValueAsString(invalidation));
+			log.debug("Sent cache invalidation={}", invalidation);
+		} catch (final JsonProcessingException | DataAccessException e) {
+			// the change itself is stored, the other instances see the skipped sequence and flush all their caches
+			log.warn("Cache invalidation collection={} id={} could not be sent", collection, id, e);
+		}
+	}
+	
+	private void listen() {
+		while (this.running) {
+			try (final var connection = this.openConnection()) {
+				try (final var statement = connection.createStatement()) {
+					statement.execute("listen " + CHANNEL);
+				}
+				// notifications sent while this instance was not listening are lost, so nothing cached can be trusted;
+				// the sequences seen before are forgotten with it, the gap to them is already covered by this flush
+				this.lastSequences.clear();
+				this.invalidateAll("listening started");
+				this.receiveNotifications(connection);
+			} catch (final SQLException e) {
+				log.warn("Cache invalidation listener lost its connection, reconnecting in {} ms", this.reconnectDelayMillis, e);
+				this.sleepBeforeReconnect();
+			}
+		}
+	}
+	
+	private void receiveNotifications(final Connection connection) throws SQLException {
+		final var pgConnection = connection.unwrap(PGConnection.class);
+		while (this.running) {
+			final var notifications = pgConnection.getNotifications(this.pollTimeoutMillis);
+			if (notifications == null || notifications.length == 0) {
+				// a broken connection is only noticed when the socket is used
+				try (final var statement = connection.createStatement()) {
+					statement.execute("select 1");
+				}
+				continue;
+			}
+			for (final var notification : notifications) {
+				this.receive(notification.getParameter());
+			}
+		}
+	}
+	
+	void receive(final String payload) {
+		final CacheInvalidation invalidation;
+		try {
+			invalidation = this.objectMapper.readValue(payload, CacheInvalidation.class);
+		} catch (final JsonProcessingException e) {
+			log.warn("Cache invalidation payload={} could not be read", payload, e);
+			this.invalidateAll("unreadable message");
+			return;
+		}
+		if (this.instanceId.equals(invalidation.getOrigin())) {
+			return;
+		}
+		final var previousSequence = this.lastSequences.put(invalidation.getOrigin(), invalidation.getSequence());
+		if (previousSequence != null && invalidation.getSequence() != previousSequence + 1) {
+			this.invalidateAll("missed messages from origin=" + invalidation.getOrigin());
+			return;
+		}
+		log.debug("Received cache invalidation={}", invalidation);
+		this.listeners.stream()
+				.filter(listener -> listener.getCollection().equals(invalidation.getCollection()))
+				.forEach(listener -> {
+					if (invalidation.getId() == null) {
+						listener.invalidateAll();
+					} else {
+						listener.invalidate(invalidation);
+					}
+				});
+	}
+	
+	private void invalidateAll(final String reason) {
+		this.listeners.forEach(CacheInvalidationListener::invalidateAll);
+		log.info("Invalidated all caches reason={}", reason);
+	}
+	
+	private Connection openConnection() throws SQLException {
+		// kept out of the pool, the subscription lives as long as the connection and must not count against the pool size
+		return DriverManager.getConnection(this.dataSourceProperties.determineUrl(),
+										   this.dataSourceProperties.determineUsername(),
+										   this.dataSourceProperties.determinePassword());
+	}
+	
+	private void sleepBeforeReconnect() {
+		try {
+			Thread.sleep(this.reconnectDelayMillis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.running = false;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package restaurantmanager;
+
+/**
+ * Evicts the local caches of one collection when another instance changed it.
+ */
+public interface CacheInvalidationListener {
+	
+	String getCollection();
+	
+	void invalidate(CacheInvalidation invalidation);
+	
+	void invalidateAll();
+}
@@ -0,0 +1,54 @@
+package restaurantmanager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CollectionVersion {
+	
+	private final String eTag;
+	private final long lastModified;
+	
+	/**
+	 * Answers with 304 Not Modified when the client copy is still current, so the body is only loaded for changed
+	 * collections. Both answers carry the ETag and Last-Modified headers.
+	 */
+	public <T> ResponseEntity<T> okIfModified(final WebRequest webRequest, final Supplier<T> body) {
+		return this.respondIfModified(webRequest, () -> ResponseEntity.ok(body.get()));
+	}
+	
+	/**
+	 * Answers a single row with an ETag made from the body that is sent. The collection version can already count a
+	 * change the row read from the replica or the entity cache does not show yet, so it would pair a new ETag with the
+	 * old body and the client would keep that body until the next change.
+	 */
+	public static <T> ResponseEntity<T> okIfRowModified(final WebRequest webRequest, final Supplier<T> body) {
+		final var row = body.get();
+		final var eTag = "\"" + DigestUtils.md5DigestAsHex(row.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+		if (webRequest.checkNotModified(eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+		}
+		return ResponseEntity.ok(row);
+	}
+	
+	public <T> ResponseEntity<T> respondIfModified(final WebRequest webRequest, final Supplier<ResponseEntity<T>> response) {
+		if (webRequest.checkNotModified(this.eTag, this.lastModified)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+		}
+		return response.get();
+	}
+}
@@ -0,0 +1,52 @@
+package restaurantmanager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts modifications per resource collection, so conditional GETs can be answered without reading the database.
+ */
+@Component
+public class CollectionVersions {
+	
+	// counters start again from zero after a restart, the instance id keeps old tags from matching new data
+	private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	
+	public void bump(final String collection) {
+		this.counterOf(collection).bump();
+	}
+	
+	public CollectionVersion get(final String collection) {
+		final var counter = this.counterOf(collection);
+		final var eTag = "\"" + collection + "-" + this.instanceId + "-" + counter.getVersion() + "\"";
+		return new CollectionVersion(eTag, counter.getLastModified());
+	}
+	
+	private Counter counterOf(final String collection) {
+		return this.counters.computeIfAbsent(collection, key -> new Counter());
+	}
+	
+	private static final class Counter {
+		
+		private final AtomicLong version = new AtomicLong();
+		
+		private volatile long lastModified = System.currentTimeMillis();
+		
+		private void bump() {
+			this.lastModified = System.currentTimeMillis();
+			this.version.incrementAndGet();
+		}
+		
+		private long getVersion() {
+			return this.version.get();
+		}
+		
+		private long getLastModified() {
+			return this.lastModified;
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package restaurantmanager;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+	
+	private static final long serialVersionUID = 4719237541960183624L;
+	
+	public ConflictException(final String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,43 @@
+package restaurantmanager;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("restaurantmanager.datasource.replica.jdbc-url")
+class DataSourceRoutingConfiguration {
+	
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+	}
+	
+	@Bean
+	@ConfigurationProperties("restaurantmanager.datasource.replica")
+	HikariDataSource replicaDataSource() {
+		return new HikariDataSource();
+	}
+	
+	@Bean
+	@Primary
+	DataSource dataSource(@Qualifier("primaryDataSource") final DataSource primaryDataSource,
+						  @Qualifier("replicaDataSource") final DataSource replicaDataSource,
+						  @Value("${restaurantmanager.datasource.replica-retry-delay-millis:5000}") final long retryDelayMillis) {
+		// transactions take their connection when the first statement runs, after the read-only flag is known
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, retryDelayMillis));
+	}
+}
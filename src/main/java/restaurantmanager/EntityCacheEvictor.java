@@ -0,0 +1,32 @@
+package restaurantmanager;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts second-level cache entries for rows changed by native statements or by other instances, which Hibernate does
+ * not track.
+ */
+@Component
+public class EntityCacheEvictor {
+	
+	private final EntityManagerFactory entityManagerFactory;
+	
+	public EntityCacheEvictor(final EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+	
+	public void evict(final Class<?> entityType, final Object id) {
+		this.entityManagerFactory.getCache().evict(entityType, id);
+	}
+	
+	public void evictAll(final Class<?> entityType) {
+		this.entityManagerFactory.getCache().evict(entityType);
+	}
+	
+	public void evictQueryRegion(final String region) {
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(region);
+	}
+}
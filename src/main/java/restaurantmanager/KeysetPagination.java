@@ -0,0 +1,113 @@
+package restaurantmanager;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public abstract class KeysetPagination {
+	
+	public static final int DEFAULT_PAGE_SIZE = 50;
+	public static final int MAX_PAGE_SIZE = 500;
+	public static final int MAX_UNPAGED_ROWS = 10_000;
+	public static final int LOAD_PAGE_SIZE = 1_000;
+	
+	private static final Long FIRST_ID = 0L;
+	
+	public static Long decodeCursor(final String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return FIRST_ID;
+		}
+		try {
+			return Long.valueOf(decodeCursorText(cursor));
+		} catch (final NumberFormatException e) {
+			throw invalidCursor(cursor);
+		}
+	}
+	
+	public static String encodeCursor(final Long id) {
+		return encodeCursorText(id.toString());
+	}
+	
+	public static String decodeCursorText(final String cursor) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (final IllegalArgumentException e) {
+			throw invalidCursor(cursor);
+		}
+	}
+	
+	public static String encodeCursorText(final String text) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static BadRequestException invalidCursor(final String cursor) {
+		return new BadRequestException("Cursor=" + cursor + " is not valid");
+	}
+	
+	public static int pageSize(final Integer size) {
+		if (size == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		if (size < 1) {
+			throw new BadRequestException("Page size=" + size + " must be positive");
+		}
+		return Math.min(size, MAX_PAGE_SIZE);
+	}
+	
+	public static Pageable firstRowsById(final int pageSize) {
+		// one row more than requested tells whether a next page exists without a count query
+		return PageRequest.of(0, pageSize + 1, Sort.by("id"));
+	}
+	
+	public static <E> List<E> findAllCapped(final Function<Pageable, List<E>> query, final String pagedPath) {
+		// unpaged lists are kept for existing clients, but refuse to materialize more rows than the cap
+		final var rows = query.apply(firstRowsById(MAX_UNPAGED_ROWS));
+		if (rows.size() > MAX_UNPAGED_ROWS) {
+			throw new BadRequestException("More than " + MAX_UNPAGED_ROWS + " rows match, read them page by page from " + pagedPath);
+		}
+		return rows;
+	}
+	
+	public static <E> List<E> findAllPageByPage(final BiFunction<Long, Pageable, List<E>> query, final Function<E, Long> idExtractor) {
+		// lists that have to stay complete are read in bounded pages instead of one unbounded result set
+		final var rows = new ArrayList<E>();
+		var lastId = FIRST_ID;
+		while (true) {
+			final var page = query.apply(lastId, PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id")));
+			rows.addAll(page);
+			if (page.size() < LOAD_PAGE_SIZE) {
+				return rows;
+			}
+			lastId = idExtractor.apply(page.get(page.size() - 1));
+		}
+	}
+	
+	public static <E, D> CursorPageDto<D> toPage(final List<E> rows,
+												 final int pageSize,
+												 final Function<E, Long> idExtractor,
+												 final Function<E, D> mapper) {
+		return toPageWithCursor(rows, pageSize, row -> encodeCursor(idExtractor.apply(row)), mapper);
+	}
+	
+	public static <E, D> CursorPageDto<D> toPageWithCursor(final List<E> rows,
+														   final int pageSize,
+														   final Function<E, String> cursorEncoder,
+														   final Function<E, D> mapper) {
+		final var hasNext = rows.size() > pageSize;
+		final var pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+		final var nextCursor = hasNext ? cursorEncoder.apply(pageRows.get(pageSize - 1)) : null;
+		return CursorPageDto.<D>builder()
+				.items(pageRows.stream().map(mapper).collect(toUnmodifiableList()))
+				.nextCursor(nextCursor)
+				.build();
+	}
+}
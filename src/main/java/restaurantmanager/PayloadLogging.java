@@ -0,0 +1,18 @@
+package restaurantmanager;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public abstract class PayloadLogging {
+	
+	/**
+	 * Marks debug events that carry whole DTOs or result lists. They are written when debug is enabled for the
+	 * logger, or for requests sampled by {@link PayloadSamplingRequestFilter} and let through by {@link PayloadSamplingFilter}.
+	 */
+	public static final Marker PAYLOAD = MarkerFactory.getMarker("PAYLOAD");
+	
+	/**
+	 * MDC key present while a sampled request is handled.
+	 */
+	public static final String SAMPLED_REQUEST = "payloadSampled";
+}
@@ -0,0 +1,26 @@
+package restaurantmanager;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+public class PayloadSamplingFilter extends TurboFilter {
+	
+	@Override
+	public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+							  final Object[] params, final Throwable t) {
+		final var payload = marker != null && marker.contains(PayloadLogging.PAYLOAD);
+		if (!payload || level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+			return FilterReply.NEUTRAL;
+		}
+		// accepting bypasses the logger level, so payloads of a sampled request are written even when their level is disabled
+		if (MDC.get(PayloadLogging.SAMPLED_REQUEST) != null) {
+			return FilterReply.ACCEPT;
+		}
+		return FilterReply.DENY;
+	}
+}
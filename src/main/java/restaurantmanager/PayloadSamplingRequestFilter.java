@@ -0,0 +1,40 @@
+package restaurantmanager;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Component
+public class PayloadSamplingRequestFilter extends OncePerRequestFilter {
+	
+	private final double sampleRate;
+	
+	public PayloadSamplingRequestFilter(@Value("${restaurantmanager.logging.payload-sample-rate:0.0}") final double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+									final FilterChain filterChain) throws ServletException, IOException {
+		// the decision is made once per request, so a sampled request logs all of its payloads and the others log none
+		if (ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		MDC.put(PayloadLogging.SAMPLED_REQUEST, Boolean.TRUE.toString());
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			MDC.remove(PayloadLogging.SAMPLED_REQUEST);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package restaurantmanager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary. When the replica
+ * cannot hand out a connection, reads go to the primary until the retry delay has passed. Queries that fill caches
+ * kept until the next change are declared in read-write transactions, so they never see a lagging replica.
+ */
+@Slf4j
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+	
+	enum Route {
+		PRIMARY,
+		REPLICA
+	}
+		
+	private final DataSource primary;
+	private final DataSource replica;
+	private final long retryDelayNanos;
+	
+	private volatile long replicaRetryAt;
+	
+	ReadWriteRoutingDataSource(final DataSource primary, final DataSource replica, final long retryDelayMillis) {
+		this.primary = primary;
+		this.replica = replica;
+		this.retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+		this.replicaRetryAt = System.nanoTime();
+		this.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		this.setDefaultTargetDataSource(primary);
+		this.afterPropertiesSet();
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (this.determineCurrentLookupKey() == Route.PRIMARY) {
+			return this.primary.getConnection();
+		}
+		try {
+			return this.replica.getConnection();
+		} catch (final SQLException e) {
+			this.replicaRetryAt = System.nanoTime() + this.retryDelayNanos;
+			log.warn("Replica is unavailable, reading from the primary: {}", e.getMessage());
+			return this.primary.getConnection();
+		}
+	}
+	
+	@Override
+	public Connection getConnection(final String username, final String password) throws SQLException {
+		// pools are configured with their own credentials, so per-call credentials are not routed
+		return this.getConnection();
+	}
+	
+	@Override
+	protected Route determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return Route.PRIMARY;
+		}
+		return System.nanoTime() - this.replicaRetryAt >= 0 ? Route.REPLICA : Route.PRIMARY;
+	}
+}
@@ -0,0 +1,301 @@
+package restaurantmanager.board;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.booking.BookingDao;
+
+@Slf4j
+@Component
+public class AvailabilityEngine {
+	
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	
+	private final BoardDao boardDao;
+	private final BookingDao bookingDao;
+	private final int slotMinutes;
+	private final int bookingDurationMinutes;
+	// bookings started this many days earlier can still run into a day
+	private final int spilloverDays;
+	
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	// the least recently used days are dropped, not the earliest dates; days also expire, so bookings other instances
+	// stored are picked up even when their invalidation message is not received
+	private final Cache<LocalDate, DayOccupancy> days;
+	private Map<Long, BoardDto> boards;
+	// bumped by every change, rows read from the database before a change are not kept
+	private long generation;
+	
+	public AvailabilityEngine(final BoardDao boardDao,
+							  final BookingDao bookingDao,
+							  @Value("${restaurantmanager.availability.slot-minutes:15}") final int slotMinutes,
+							  @Value("${restaurantmanager.booking.duration-minutes:120}") final int bookingDurationMinutes,
+							  @Value("${restaurantmanager.availability.max-cached-days:62}") final int maxCachedDays,
+							  @Value("${restaurantmanager.availability.days-ttl-seconds:30}") final long daysTtlSeconds) {
+		this.boardDao = boardDao;
+		this.bookingDao = bookingDao;
+		this.slotMinutes = slotMinutes;
+		this.bookingDurationMinutes = bookingDurationMinutes;
+		this.spilloverDays = (bookingDurationMinutes + MINUTES_PER_DAY - 2) / MINUTES_PER_DAY;
+		this.days = Caffeine.newBuilder()
+				.maximumSize(maxCachedDays)
+				.expireAfterWrite(Duration.ofSeconds(daysTtlSeconds))
+				.build();
+	}
+	
+	List<BoardDto> findAvailableBoards(final LocalDate date, final LocalTime time, final long numberOfSeats) {
+		final var requestedSlots = this.slotsByDate(date, time);
+		final long loadedGeneration;
+		final Map<Long, BoardDto> cachedBoards;
+		final Map<LocalDate, DayOccupancy> cachedDays;
+		
+		this.lock.readLock().lock();
+		try {
+			cachedDays = this.cachedDays(requestedSlots);
+			if (this.boards != null && cachedDays.size() == requestedSlots.size()) {
+				return collectAvailableBoards(this.boards, cachedDays, requestedSlots, numberOfSeats);
+			}
+			loadedGeneration = this.generation;
+			cachedBoards = this.boards;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		
+		// the database is read without the lock, so checks against loaded days do not wait for it
+		final var loadedBoards = cachedBoards != null ? cachedBoards : this.loadBoards();
+		final var loadedDays = new HashMap<>(cachedDays);
+		requestedSlots.keySet().forEach(slotDate -> loadedDays.computeIfAbsent(slotDate, this::loadDay));
+		
+		this.lock.writeLock().lock();
+		try {
+			if (this.generation != loadedGeneration) {
+				// a booking or board changed meanwhile and may be missing from the loaded rows, they answer this call only
+				final var currentDays = this.cachedDays(requestedSlots);
+				loadedDays.forEach(currentDays::putIfAbsent);
+				return collectAvailableBoards(this.boards != null ? this.boards : loadedBoards, currentDays, requestedSlots, numberOfSeats);
+			}
+			if (this.boards == null) {
+				this.boards = loadedBoards;
+			}
+			final var installedDays = new HashMap<LocalDate, DayOccupancy>();
+			loadedDays.forEach((slotDate, day) -> installedDays.put(slotDate, this.days.get(slotDate, key -> day)));
+			return collectAvailableBoards(this.boards, installedDays, requestedSlots, numberOfSeats);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	public void bookingSaved(final Long bookingId, final Long boardId, final LocalDate date, final LocalTime time) {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			this.removeBooking(bookingId);
+			if (boardId == null || date == null || time == null) {
+				return;
+			}
+			// days which are not loaded yet will read the saved booking from the database
+			this.slotsByDate(date, time).forEach((slotDate, slots) -> {
+				final var day = this.days.getIfPresent(slotDate);
+				if (day != null) {
+					day.occupy(bookingId, boardId, slots);
+				}
+			});
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	public void bookingRemoved(final Long bookingId) {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			this.removeBooking(bookingId);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	public void invalidateBooking(final Long bookingId, final List<LocalDate> dates) {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			this.removeBooking(bookingId);
+			// the message does not carry the slot, so every day the booking can run into is read again
+			dates.forEach(date -> this.days.invalidateAll(date.datesUntil(date.plusDays(this.spilloverDays + 1L)).collect(toUnmodifiableList())));
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	public void invalidateDays() {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			this.days.invalidateAll();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	void boardSaved(final BoardDto board) {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			if (this.boards != null) {
+				this.boards.put(board.getId(), board);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	void boardRemoved(final Long boardId) {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			if (this.boards != null) {
+				this.boards.remove(boardId);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	void invalidateBoards() {
+		this.lock.writeLock().lock();
+		try {
+			this.generation++;
+			this.boards = null;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	private static List<BoardDto> collectAvailableBoards(final Map<Long, BoardDto> boards,
+														 final Map<LocalDate, DayOccupancy> days,
+														 final Map<LocalDate, BitSet> requestedSlots,
+														 final long numberOfSeats) {
+		return boards.values()
+				.stream()
+				.filter(board -> board.getNumberOfSeats() != null && board.getNumberOfSeats() >= numberOfSeats)
+				.filter(board -> requestedSlots.entrySet()
+						.stream()
+						.allMatch(slots -> days.get(slots.getKey()).isFree(board.getId(), slots.getValue())))
+				.sorted(Comparator.comparing(BoardDto::getNumberOfSeats).thenComparing(BoardDto::getId))
+				.collect(toUnmodifiableList());
+	}
+	
+	private Map<LocalDate, DayOccupancy> cachedDays(final Map<LocalDate, BitSet> requestedSlots) {
+		final var cachedDays = new HashMap<LocalDate, DayOccupancy>();
+		requestedSlots.keySet().forEach(slotDate -> {
+			final var day = this.days.getIfPresent(slotDate);
+			if (day != null) {
+				cachedDays.put(slotDate, day);
+			}
+		});
+		return cachedDays;
+	}
+	
+	private Map<Long, BoardDto> loadBoards() {
+		final var loadedBoards = new HashMap<Long, BoardDto>();
+		this.boardDao.findAll().forEach(board -> loadedBoards.put(board.getId(), BoardMapper.INSTANCE.map(board)));
+		log.info("Loaded boards count={} into availability engine", loadedBoards.size());
+		return loadedBoards;
+	}
+	
+	private DayOccupancy loadDay(final LocalDate date) {
+		final var day = new DayOccupancy();
+		// bookings of the previous evenings that run past midnight occupy the first slots of the day
+		final var bookings = this.bookingDao.findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(date.minusDays(this.spilloverDays),
+																										   date);
+		bookings.stream()
+				.filter(booking -> booking.getBoardId() != null && booking.getBookingDate() != null && booking.getBookingTime() != null)
+				.forEach(booking -> {
+					final var slots = this.slotsByDate(booking.getBookingDate(), booking.getBookingTime()).get(date);
+					if (slots != null) {
+						day.occupy(booking.getId(), booking.getBoardId(), slots);
+					}
+				});
+		log.info("Loaded bookings count={} for date={} into availability engine", bookings.size(), date);
+		return day;
+	}
+	
+	private void removeBooking(final Long bookingId) {
+		// a booking past midnight is placed on two days, so every loaded day is released
+		this.days.asMap().values().forEach(day -> day.release(bookingId));
+	}
+	
+	private Map<LocalDate, BitSet> slotsByDate(final LocalDate date, final LocalTime time) {
+		final var startMinute = time.getHour() * 60 + time.getMinute();
+		final var endMinute = startMinute + this.bookingDurationMinutes;
+		final var slotsByDate = new HashMap<LocalDate, BitSet>();
+		for (int dayStartMinute = 0; dayStartMinute < endMinute; dayStartMinute += MINUTES_PER_DAY) {
+			final var from = Math.max(startMinute, dayStartMinute) - dayStartMinute;
+			final var to = Math.min(endMinute, dayStartMinute + MINUTES_PER_DAY) - dayStartMinute;
+			if (from < to) {
+				final var slots = new BitSet();
+				slots.set(from / this.slotMinutes, (to + this.slotMinutes - 1) / this.slotMinutes);
+				slotsByDate.put(date.plusDays(dayStartMinute / MINUTES_PER_DAY), slots);
+			}
+		}
+		return slotsByDate;
+	}
+	
+	private static final class DayOccupancy {
+		
+		private final Map<Long, BitSet> occupiedSlotsByBoard = new HashMap<>();
+		private final Map<Long, Placement> placementsByBooking = new HashMap<>();
+		
+		private void occupy(final Long bookingId, final Long boardId, final BitSet slots) {
+			this.placementsByBooking.put(bookingId, new Placement(boardId, slots));
+			this.occupiedSlotsByBoard.computeIfAbsent(boardId, id -> new BitSet()).or(slots);
+		}
+		
+		private void release(final Long bookingId) {
+			final var placement = this.placementsByBooking.remove(bookingId);
+			if (placement == null) {
+				return;
+			}
+			// overlapping bookings of the same board share bits, so the board's bitmap is rebuilt
+			final var occupiedSlots = new BitSet();
+			this.placementsByBooking.values()
+					.stream()
+					.filter(other -> other.boardId.equals(placement.boardId))
+					.forEach(other -> occupiedSlots.or(other.slots));
+			this.occupiedSlotsByBoard.put(placement.boardId, occupiedSlots);
+		}
+		
+		private boolean isFree(final Long boardId, final BitSet requestedSlots) {
+			final var occupiedSlots = this.occupiedSlotsByBoard.get(boardId);
+			return occupiedSlots == null || !occupiedSlots.intersects(requestedSlots);
+		}
+	}
+	
+	private static final class Placement {
+		
+		private final Long boardId;
+		private final BitSet slots;
+		
+		private Placement(final Long boardId, final BitSet slots) {
+			this.boardId = boardId;
+			this.slots = slots;
+		}
+	}
+}
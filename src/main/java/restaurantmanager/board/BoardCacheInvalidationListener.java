@@ -0,0 +1,44 @@
+package restaurantmanager.board;
+
+import org.springframework.stereotype.Component;
+
+import restaurantmanager.CacheInvalidation;
+import restaurantmanager.CacheInvalidationListener;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.EntityCacheEvictor;
+
+@Component
+class BoardCacheInvalidationListener implements CacheInvalidationListener {
+	
+	private final AvailabilityEngine availabilityEngine;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final CollectionVersions collectionVersions;
+	
+	BoardCacheInvalidationListener(final AvailabilityEngine availabilityEngine,
+								   final EntityCacheEvictor entityCacheEvictor,
+								   final CollectionVersions collectionVersions) {
+		this.availabilityEngine = availabilityEngine;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.collectionVersions = collectionVersions;
+	}
+	
+	@Override
+	public String getCollection() {
+		return BoardService.VERSIONED_COLLECTION;
+	}
+	
+	@Override
+	public void invalidate(final CacheInvalidation invalidation) {
+		this.entityCacheEvictor.evict(Board.class, invalidation.getId());
+		// the boards are read again on the next availability check, the message does not carry the changed row
+		this.availabilityEngine.invalidateBoards();
+		this.collectionVersions.bump(BoardService.VERSIONED_COLLECTION);
+	}
+	
+	@Override
+	public void invalidateAll() {
+		this.entityCacheEvictor.evictAll(Board.class);
+		this.availabilityEngine.invalidateBoards();
+		this.collectionVersions.bump(BoardService.VERSIONED_COLLECTION);
+	}
+}
@@ -1,16 +1,26 @@
 package restaurantmanager.board;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.CollectionVersion;
+import restaurantmanager.CursorPageDto;
 
 @RestController
 @RequestMapping("/boards")
@@ -23,13 +33,33 @@ public class BoardController {
 	}
 	
 	@GetMapping
-	public ResponseEntity<List<BoardDto>> getAllBoards() {
-		return ResponseEntity.ok(this.boardService.getAllBoards());
+	public ResponseEntity<List<BoardDto>> getAllBoards(final WebRequest webRequest) {
+		return this.boardService.getVersion().okIfModified(webRequest, this.boardService::getAllBoards);
+	}
+	
+	@GetMapping("/page")
+	public ResponseEntity<CursorPageDto<BoardDto>> getBoardsPage(@RequestParam(required = false) final String cursor,
+																 @RequestParam(required = false) final Integer size,
+																 final WebRequest webRequest) {
+		return this.boardService.getVersion().okIfModified(webRequest, () -> this.boardService.getBoardsPage(cursor, size));
+	}
+	
+	@GetMapping("/available")
+	public ResponseEntity<List<BoardDto>> getAvailableBoards(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate date,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) final LocalTime time,
+			@RequestParam(defaultValue = "1") final Long numberOfSeats) {
+		return ResponseEntity.ok(this.boardService.getAvailableBoards(date, time, numberOfSeats));
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<ByIdsDto<BoardDto>> getBoardsByIds(@RequestParam final List<Long> ids, final WebRequest webRequest) {
+		return this.boardService.getVersion().okIfModified(webRequest, () -> this.boardService.getBoardsByIds(ids));
 	}
 	
 	@GetMapping("/{id}")
-	public ResponseEntity<BoardDto> getBoardById(@PathVariable final Long id) {
-		return ResponseEntity.ok(this.boardService.getBoardById(id));
+	public ResponseEntity<BoardDto> getBoardById(@PathVariable final Long id, final WebRequest webRequest) {
+		return CollectionVersion.okIfRowModified(webRequest, () -> this.boardService.getBoardById(id));
 	}
 	
 	@PostMapping
@@ -37,12 +67,23 @@ public class BoardController {
 		return ResponseEntity.ok(this.boardService.addBoard(modifyBoardDto));
 	}
 	
+	@PostMapping("/bulk")
+	public ResponseEntity<List<BoardDto>> addBoards(@RequestBody final List<ModifyBoardDto> modifyBoardDtos) {
+		return ResponseEntity.ok(this.boardService.addBoards(modifyBoardDtos));
+	}
+	
 	@PutMapping("/update/{id}")
 	public ResponseEntity<BoardDto> updateBoard(@PathVariable final Long id,
 												@RequestBody final ModifyBoardDto modifyBoardDto) {
 		return ResponseEntity.ok(this.boardService.updateBoard(id, modifyBoardDto));
 	}
 	
+	@PatchMapping("/update/{id}")
+	public ResponseEntity<BoardDto> patchBoard(@PathVariable final Long id,
+											   @RequestBody final ModifyBoardDto modifyBoardDto) {
+		return ResponseEntity.ok(this.boardService.patchBoard(id, modifyBoardDto));
+	}
+	
 	@DeleteMapping("/delete/{id}")
 	public ResponseEntity<BoardDto> deleteBoardById(@PathVariable final Long id) {
 		return ResponseEntity.ok(this.boardService.deleteBoardById(id));
@@ -1,8 +1,48 @@
 package restaurantmanager.board;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface BoardDao extends JpaRepository<Board, Long> {
+	
+	// the availability engine caches all boards until the next change, a read-write transaction loads them from the primary
+	@Override
+	@Transactional
+	List<Board> findAll();
+	
+	List<Board> findAllBy(final Pageable pageable);
+	
+	List<Board> findAllByIdGreaterThan(final Long id, final Pageable pageable);
+	
+	@Query(value = "select * from boards where sync_version >= :syncVersion and id > :afterId order by id limit :limit", nativeQuery = true)
+	List<Board> findAllChangedSince(@Param("syncVersion") final Long syncVersion,
+									@Param("afterId") final Long afterId,
+									@Param("limit") final int limit);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Transactional
+	@Query("update Board b set b.numberOfSeats = :#{#board.numberOfSeats}, b.boardDescription = :#{#board.boardDescription} "
+			+ "where b.id = :#{#board.id}")
+	int update(@Param("board") final Board board);
+	
+	@Transactional
+	@Query(value = "delete from boards where id = :id returning *", nativeQuery = true)
+	Optional<Board> deleteReturningById(@Param("id") final Long id);
+	
+	@Transactional
+	default Optional<Board> patchById(final Long id, final Consumer<Board> patch) {
+		final var board = this.findById(id);
+		board.ifPresent(patch);
+		return board;
+	}
 }
@@ -2,63 +2,183 @@ package restaurantmanager.board;
 
 
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static restaurantmanager.PayloadLogging.PAYLOAD;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.ByIdsLookup;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersion;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.CursorPageDto;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
+import restaurantmanager.events.ChangeEvent;
 
 @Slf4j
 @Service
 class BoardService {
 	
+	static final String VERSIONED_COLLECTION = "boards";
+	static final String CHANGE_EVENT = "board";
+	
 	private final BoardDao boardDao;
+	private final AvailabilityEngine availabilityEngine;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final CollectionVersions collectionVersions;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final CacheInvalidationBus cacheInvalidationBus;
 	
-	BoardService(final BoardDao boardDao) {
+	BoardService(final BoardDao boardDao,
+				 final AvailabilityEngine availabilityEngine,
+				 final EntityCacheEvictor entityCacheEvictor,
+				 final CollectionVersions collectionVersions,
+				 final ApplicationEventPublisher applicationEventPublisher,
+				 final CacheInvalidationBus cacheInvalidationBus) {
 		this.boardDao = boardDao;
+		this.availabilityEngine = availabilityEngine;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.collectionVersions = collectionVersions;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.cacheInvalidationBus = cacheInvalidationBus;
+	}
+	
+	CollectionVersion getVersion() {
+		return this.collectionVersions.get(VERSIONED_COLLECTION);
 	}
 	
 	List<BoardDto> getAllBoards() {
-		final var boards = this.boardDao.findAll()
+		final var boards = KeysetPagination.findAllCapped(this.boardDao::findAllBy, "/boards/page")
 				.stream()
 				.map(BoardMapper.INSTANCE::map)
 				.collect(toUnmodifiableList());
-		log.info("Received boards={}", boards);
+		log.info("Received boards count={}", boards.size());
+		log.debug(PAYLOAD, "Received boards={}", boards);
 		return boards;
 	}
 	
+	ByIdsDto<BoardDto> getBoardsByIds(final List<Long> ids) {
+		final var result = ByIdsLookup.findInRequestOrder(ids, this.boardDao::findAllById, Board::getId, BoardMapper.INSTANCE::map);
+		log.info("Received boards count={} missingIds={}", result.getItems().size(), result.getMissingIds());
+		log.debug(PAYLOAD, "Received boards={}", result.getItems());
+		return result;
+	}
+	
 	BoardDto getBoardById(final Long id) {
 		final var receivedBoard = BoardMapper.INSTANCE.map(this.getEntityFromDb(id));
-		log.info("Received board={}", receivedBoard);
+		log.info("Received board id={}", receivedBoard.getId());
+		log.debug(PAYLOAD, "Received board={}", receivedBoard);
 		return receivedBoard;
 	}
 	
+	CursorPageDto<BoardDto> getBoardsPage(final String cursor, final Integer size) {
+		final var pageSize = KeysetPagination.pageSize(size);
+		final var rows = this.boardDao.findAllByIdGreaterThan(KeysetPagination.decodeCursor(cursor),
+															   KeysetPagination.firstRowsById(pageSize));
+		final var page = KeysetPagination.toPage(rows, pageSize, Board::getId, BoardMapper.INSTANCE::map);
+		log.info("Received boards page count={} nextCursor={}", page.getItems().size(), page.getNextCursor());
+		log.debug(PAYLOAD, "Received boards page={}", page);
+		return page;
+	}
+	
+	List<BoardDto> getAvailableBoards(final LocalDate date, final LocalTime time, final Long numberOfSeats) {
+		final var availableBoards = this.availabilityEngine.findAvailableBoards(date, time, numberOfSeats);
+		log.info("Received availableBoards count={} for date={} time={} numberOfSeats={}", availableBoards.size(), date, time, numberOfSeats);
+		log.debug(PAYLOAD, "Received availableBoards={} for date={} time={} numberOfSeats={}", availableBoards, date, time, numberOfSeats);
+		return availableBoards;
+	}
+	
 	BoardDto addBoard(final ModifyBoardDto modifyBoardDto) {
 		final var savedBoard = this.boardDao.save(BoardMapper.INSTANCE.mapFromModify(modifyBoardDto));
-		log.info("Saved board={}", savedBoard);
-		return BoardMapper.INSTANCE.map(savedBoard);
+		log.info("Saved board id={}", savedBoard.getId());
+		log.debug(PAYLOAD, "Saved board={}", savedBoard);
+		final var addedBoard = BoardMapper.INSTANCE.map(savedBoard);
+		this.availabilityEngine.boardSaved(addedBoard);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.applicationEventPublisher.publishEvent(ChangeEvent.saved(CHANGE_EVENT, addedBoard));
+		this.cacheInvalidationBus.publish(VERSIONED_COLLECTION, addedBoard.getId());
+		return addedBoard;
+	}
+	
+	List<BoardDto> addBoards(final List<ModifyBoardDto> modifyBoardDtos) {
+		final var boards = modifyBoardDtos.stream()
+				.map(BoardMapper.INSTANCE::mapFromModify)
+				.collect(toUnmodifiableList());
+		final var addedBoards = this.boardDao.saveAll(boards)
+				.stream()
+				.map(BoardMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+		log.info("Saved boards count={}", addedBoards.size());
+		addedBoards.forEach(this.availabilityEngine::boardSaved);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		addedBoards.forEach(board -> this.applicationEventPublisher.publishEvent(ChangeEvent.saved(CHANGE_EVENT, board)));
+		this.cacheInvalidationBus.publishAll(VERSIONED_COLLECTION);
+		return addedBoards;
 	}
 	
 	BoardDto updateBoard(final Long id, final ModifyBoardDto modifyBoardDto) {
-		final var boardFromDb = this.getEntityFromDb(id);
 		final var modifiedBoard = Board.builder()
-				.id(boardFromDb.getId())
+				.id(id)
 				.numberOfSeats(modifyBoardDto.getNumberOfSeats())
 				.boardDescription(modifyBoardDto.getBoardDescription()).build();
-		return BoardMapper.INSTANCE.map(this.boardDao.save(modifiedBoard));
+		if (this.boardDao.update(modifiedBoard) == 0) {
+			throw notFound(id);
+		}
+		final var updatedBoard = BoardMapper.INSTANCE.map(modifiedBoard);
+		this.availabilityEngine.boardSaved(updatedBoard);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.applicationEventPublisher.publishEvent(ChangeEvent.saved(CHANGE_EVENT, updatedBoard));
+		this.cacheInvalidationBus.publish(VERSIONED_COLLECTION, updatedBoard.getId());
+		return updatedBoard;
+	}
+	
+	BoardDto patchBoard(final Long id, final ModifyBoardDto modifyBoardDto) {
+		final var patchedBoard = this.boardDao.patchById(id, board -> patch(board, modifyBoardDto))
+				.map(BoardMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		this.availabilityEngine.boardSaved(patchedBoard);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.applicationEventPublisher.publishEvent(ChangeEvent.saved(CHANGE_EVENT, patchedBoard));
+		this.cacheInvalidationBus.publish(VERSIONED_COLLECTION, patchedBoard.getId());
+		log.info("Saved patchedBoard id={}", patchedBoard.getId());
+		log.debug(PAYLOAD, "Saved patchedBoard={}", patchedBoard);
+		return patchedBoard;
 	}
 	
 	BoardDto deleteBoardById(final Long id) {
-		final var removedBoard = this.getBoardById(id);
-		this.boardDao.deleteById(removedBoard.getId());
-		log.info("Removed board={}", removedBoard);
+		final var removedBoard = this.boardDao.deleteReturningById(id)
+				.map(BoardMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		this.entityCacheEvictor.evict(Board.class, id);
+		this.availabilityEngine.boardRemoved(removedBoard.getId());
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.applicationEventPublisher.publishEvent(ChangeEvent.removed(CHANGE_EVENT, removedBoard));
+		this.cacheInvalidationBus.publish(VERSIONED_COLLECTION, removedBoard.getId());
+		log.info("Removed board id={}", removedBoard.getId());
+		log.debug(PAYLOAD, "Removed board={}", removedBoard);
 		return removedBoard;
 	}
 	
 	private Board getEntityFromDb(final Long id) {
 		return this.boardDao.findById(id)
-				.orElseThrow(() -> new NotFoundException("Board with id=" + id + " not found"));
+				.orElseThrow(() -> notFound(id));
+	}
+	
+	private static void patch(final Board board, final ModifyBoardDto modifyBoardDto) {
+		Optional.ofNullable(modifyBoardDto.getNumberOfSeats()).ifPresent(board::setNumberOfSeats);
+		Optional.ofNullable(modifyBoardDto.getBoardDescription()).ifPresent(board::setBoardDescription);
+	}
+	
+	private static NotFoundException notFound(final Long id) {
+		return new NotFoundException("Board with id=" + id + " not found");
 	}
 }
@@ -9,7 +9,12 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.DynamicUpdate;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -17,20 +22,29 @@ import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@DynamicUpdate
 @Builder(toBuilder = true)
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 @NoArgsConstructor(access = AccessLevel.PUBLIC)
 @Getter
+@Setter(AccessLevel.PACKAGE)
 @ToString
 @EqualsAndHashCode
-@Table(name = "bookings")
+@Table(name = "bookings",
+		indexes = {
+				@Index(name = "bookings_booking_date_booking_time_idx", columnList = "booking_date, booking_time"),
+				@Index(name = "bookings_employee_id_booking_date_idx", columnList = "employee_id, booking_date")},
+		uniqueConstraints = @UniqueConstraint(name = BookingConflictGuard.BOARD_SLOT_CONSTRAINT,
+											  columnNames = {"board_id", "booking_date", "booking_time"}))
 public class Booking {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+	@SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
 	private Long id;
 	
 	@Column(name = "booking_date")
@@ -0,0 +1,42 @@
+package restaurantmanager.booking;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import restaurantmanager.CacheInvalidation;
+import restaurantmanager.CacheInvalidationListener;
+import restaurantmanager.board.AvailabilityEngine;
+
+@Component
+class BookingCacheInvalidationListener implements CacheInvalidationListener {
+	
+	private final AvailabilityEngine availabilityEngine;
+	
+	BookingCacheInvalidationListener(final AvailabilityEngine availabilityEngine) {
+		this.availabilityEngine = availabilityEngine;
+	}
+	
+	@Override
+	public String getCollection() {
+		return BookingService.CACHED_COLLECTION;
+	}
+	
+	@Override
+	public void invalidate(final CacheInvalidation invalidation) {
+		// the keys are the dates the booking is on now, the days it left are found by its id
+		final var keys = invalidation.getKeys() != null ? invalidation.getKeys() : List.<String>of();
+		final var dates = keys.stream()
+				.map(LocalDate::parse)
+				.collect(toUnmodifiableList());
+		this.availabilityEngine.invalidateBooking(invalidation.getId(), dates);
+	}
+	
+	@Override
+	public void invalidateAll() {
+		this.availabilityEngine.invalidateDays();
+	}
+}
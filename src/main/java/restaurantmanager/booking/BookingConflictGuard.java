@@ -0,0 +1,163 @@
+package restaurantmanager.booking;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.ConflictException;
+
+@Slf4j
+@Component
+class BookingConflictGuard {
+	
+	static final String BOARD_SLOT_CONSTRAINT = "bookings_board_slot_uk";
+	static final String BOARD_OVERLAP_CONSTRAINT = "bookings_board_overlap_excl";
+	
+	private static final Long NO_BOOKING_ID = 0L;
+	
+	private final BookingDao bookingDao;
+	private final int bookingDurationSeconds;
+	private final Lock[] stripes;
+	
+	BookingConflictGuard(final BookingDao bookingDao,
+						 @Value("${restaurantmanager.booking.duration-minutes:120}") final int bookingDurationMinutes,
+						 @Value("${restaurantmanager.booking.lock-stripes:64}") final int lockStripes) {
+		this.bookingDao = bookingDao;
+		this.bookingDurationSeconds = bookingDurationMinutes * 60;
+		this.stripes = new Lock[lockStripes];
+		for (var i = 0; i < lockStripes; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+	}
+	
+	<T> T writeIfBoardIsFree(final Long bookingId, final ModifyBookingDto modifyBookingDto, final Supplier<T> write) {
+		final var boardId = modifyBookingDto.getBoardId();
+		final var bookingDate = modifyBookingDto.getBookingDate();
+		final var bookingTime = modifyBookingDto.getBookingTime();
+		if (boardId == null || bookingDate == null || bookingTime == null) {
+			return this.translateConflict(() -> conflict(boardId), write);
+		}
+		
+		final var lockedStripes = this.stripesOf(List.of(modifyBookingDto));
+		lockedStripes.forEach(Lock::lock);
+		try {
+			this.checkBoardIsFree(bookingId, boardId, bookingDate, bookingTime);
+			return this.translateConflict(() -> conflict(boardId), write);
+		} finally {
+			lockedStripes.forEach(Lock::unlock);
+		}
+	}
+	
+	<T> T writeIfBoardsAreFree(final List<ModifyBookingDto> modifyBookingDtos, final Supplier<T> write) {
+		final var placedBookings = modifyBookingDtos.stream()
+				.filter(dto -> dto.getBoardId() != null && dto.getBookingDate() != null && dto.getBookingTime() != null)
+				.sorted(Comparator.comparing(ModifyBookingDto::getBoardId)
+						.thenComparing(ModifyBookingDto::getBookingDate)
+						.thenComparing(ModifyBookingDto::getBookingTime))
+				.collect(toUnmodifiableList());
+		this.checkBookingsDoNotOverlap(placedBookings);
+		
+		final var lockedStripes = this.stripesOf(placedBookings);
+		lockedStripes.forEach(Lock::lock);
+		try {
+			placedBookings.forEach(dto -> this.checkBoardIsFree(null, dto.getBoardId(), dto.getBookingDate(), dto.getBookingTime()));
+			return this.translateConflict(() -> new ConflictException("One of the boards is already booked at given time"), write);
+		} finally {
+			lockedStripes.forEach(Lock::unlock);
+		}
+	}
+	
+	private void checkBookingsDoNotOverlap(final List<ModifyBookingDto> sortedBookings) {
+		for (var i = 1; i < sortedBookings.size(); i++) {
+			final var previous = sortedBookings.get(i - 1);
+			final var current = sortedBookings.get(i);
+			// start timestamps are compared, so a late booking also overlaps an early one on the next day
+			if (previous.getBoardId().equals(current.getBoardId())
+					&& Duration.between(startOf(previous), startOf(current)).getSeconds() < this.bookingDurationSeconds) {
+				log.info("Rejected bookings for boardId={} at date={} because they overlap each other", current.getBoardId(), current.getBookingDate());
+				throw conflict(current.getBoardId());
+			}
+		}
+	}
+	
+	private void checkBoardIsFree(final Long bookingId, final Long boardId, final LocalDate bookingDate, final LocalTime bookingTime) {
+		final var start = LocalDateTime.of(bookingDate, bookingTime);
+		final var from = start.minusSeconds(this.overlapSeconds());
+		final var to = start.plusSeconds(this.overlapSeconds());
+		final var excludedId = bookingId == null ? NO_BOOKING_ID : bookingId;
+		
+		// the window runs past midnight for late and early bookings, each date it covers is checked separately
+		for (final var date : this.overlappingDates(bookingDate, bookingTime)) {
+			final var fromTime = date.equals(from.toLocalDate()) ? from.toLocalTime() : LocalTime.MIN;
+			final var toTime = date.equals(to.toLocalDate()) ? to.toLocalTime() : LocalTime.MAX;
+			if (this.bookingDao.existsOverlappingBooking(boardId, date, fromTime, toTime, excludedId)) {
+				log.info("Rejected booking for boardId={} at date={} time={} because of overlapping booking", boardId, bookingDate, bookingTime);
+				throw conflict(boardId);
+			}
+		}
+	}
+	
+	private <T> T translateConflict(final Supplier<ConflictException> conflict, final Supplier<T> write) {
+		try {
+			return write.get();
+		} catch (final DataIntegrityViolationException e) {
+			final var message = e.getMostSpecificCause().getMessage();
+			// the exclusion constraint catches overlaps a concurrent write on another instance stored after the check
+			if (message != null && (message.contains(BOARD_SLOT_CONSTRAINT) || message.contains(BOARD_OVERLAP_CONSTRAINT))) {
+				throw conflict.get();
+			}
+			throw e;
+		}
+	}
+	
+	private List<Lock> stripesOf(final List<ModifyBookingDto> modifyBookingDtos) {
+		// a booking locks every date its overlap window covers, so bookings on both sides of midnight share a stripe;
+		// stripes are always locked in ascending order, so concurrent writes cannot deadlock
+		return modifyBookingDtos.stream()
+				.flatMap(dto -> this.overlappingDates(dto.getBookingDate(), dto.getBookingTime())
+						.stream()
+						.map(date -> this.stripeIndexOf(dto.getBoardId(), date)))
+				.distinct()
+				.sorted()
+				.map(index -> this.stripes[index])
+				.collect(toUnmodifiableList());
+	}
+	
+	private List<LocalDate> overlappingDates(final LocalDate bookingDate, final LocalTime bookingTime) {
+		final var start = LocalDateTime.of(bookingDate, bookingTime);
+		return start.minusSeconds(this.overlapSeconds())
+				.toLocalDate()
+				.datesUntil(start.plusSeconds(this.overlapSeconds()).toLocalDate().plusDays(1L))
+				.collect(toUnmodifiableList());
+	}
+	
+	private long overlapSeconds() {
+		return Math.max(this.bookingDurationSeconds - 1L, 0L);
+	}
+	
+	private int stripeIndexOf(final Long boardId, final LocalDate bookingDate) {
+		return Math.floorMod(Objects.hash(boardId, bookingDate), this.stripes.length);
+	}
+	
+	private static LocalDateTime startOf(final ModifyBookingDto modifyBookingDto) {
+		return LocalDateTime.of(modifyBookingDto.getBookingDate(), modifyBookingDto.getBookingTime());
+	}
+	
+	private static ConflictException conflict(final Long boardId) {
+		return new ConflictException("Board with id=" + boardId + " is already booked at given time");
+	}
+}
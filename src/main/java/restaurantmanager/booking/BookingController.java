@@ -1,25 +1,36 @@
 package restaurantmanager.booking;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.CursorPageDto;
 
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
 	
 	private final BookingService bookingService;
+	private final BookingExporter bookingExporter;
 	
-	public BookingController(final BookingService bookingService) {
+	public BookingController(final BookingService bookingService, final BookingExporter bookingExporter) {
 		this.bookingService = bookingService;
+		this.bookingExporter = bookingExporter;
 	}
 	
 	@GetMapping
@@ -27,6 +38,70 @@ public class BookingController {
 		return ResponseEntity.ok(this.bookingService.getAllBookings());
 	}
 	
+	@GetMapping(params = {"from", "to"})
+	public ResponseEntity<List<BookingDto>> getBookingsBetween(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+		return ResponseEntity.ok(this.bookingService.getBookingsBetween(from, to));
+	}
+	
+	@GetMapping("/byBoard/{boardId}")
+	public ResponseEntity<List<BookingDto>> getBookingsByBoardBetween(
+			@PathVariable final Long boardId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+		return ResponseEntity.ok(this.bookingService.getBookingsByBoardBetween(boardId, from, to));
+	}
+	
+	@GetMapping("/byEmployee/{employeeId}")
+	public ResponseEntity<List<BookingDto>> getBookingsByEmployeeBetween(
+			@PathVariable final Long employeeId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+		return ResponseEntity.ok(this.bookingService.getBookingsByEmployeeBetween(employeeId, from, to));
+	}
+	
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportBookings() {
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(this.bookingExporter::export);
+	}
+	
+	@GetMapping("/page")
+	public ResponseEntity<CursorPageDto<BookingDto>> getBookingsPage(
+			@RequestParam(required = false) final String cursor,
+			@RequestParam(required = false) final Integer size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+		return ResponseEntity.ok(this.bookingService.getBookingsPage(cursor, size, from, to));
+	}
+	
+	@GetMapping("/byBoard/{boardId}/page")
+	public ResponseEntity<CursorPageDto<BookingDto>> getBookingsByBoardPage(
+			@PathVariable final Long boardId,
+			@RequestParam(required = false) final String cursor,
+			@RequestParam(required = false) final Integer size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+		return ResponseEntity.ok(this.bookingService.getBookingsByBoardPage(boardId, cursor, size, from, to));
+	}
+	
+	@GetMapping("/byEmployee/{employeeId}/page")
+	public ResponseEntity<CursorPageDto<BookingDto>> getBookingsByEmployeePage(
+			@PathVariable final Long employeeId,
+			@RequestParam(required = false) final String cursor,
+			@RequestParam(required = false) final Integer size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+		return ResponseEntity.ok(this.bookingService.getBookingsByEmployeePage(employeeId, cursor, size, from, to));
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<ByIdsDto<BookingDto>> getBookingsByIds(@RequestParam final List<Long> ids) {
+		return ResponseEntity.ok(this.bookingService.getBookingsByIds(ids));
+	}
+	
 	@GetMapping("/{id}")
 	public ResponseEntity<BookingDto> getBookingById(@PathVariable final Long id) {
 		return ResponseEntity.ok(this.bookingService.getBookingById(id));
@@ -37,12 +112,28 @@ public class BookingController {
 		return ResponseEntity.ok(this.bookingService.addBooking(modifyBookingDto));
 	}
 	
+	@PostMapping("/bulk")
+	public ResponseEntity<List<BookingDto>> addBookings(@RequestBody final List<ModifyBookingDto> modifyBookingDtos) {
+		return ResponseEntity.ok(this.bookingService.addBookings(modifyBookingDtos));
+	}
+	
 	@PutMapping("/update/{id}")
 	public ResponseEntity<BookingDto> updateBooking(@PathVariable final Long id,
 													@RequestBody final ModifyBookingDto modifyBookingDto) {
 		return ResponseEntity.ok(this.bookingService.updateBooking(id, modifyBookingDto));
 	}
 	
+	@PatchMapping("/update/{id}")
+	public ResponseEntity<BookingDto> patchBooking(@PathVariable final Long id,
+												   @RequestBody final ModifyBookingDto modifyBookingDto) {
+		return ResponseEntity.ok(this.bookingService.patchBooking(id, modifyBookingDto));
+	}
+	
+	@DeleteMapping(value = "/delete", params = "ids")
+	public ResponseEntity<List<BookingDto>> deleteBookingsByIds(@RequestParam final List<Long> ids) {
+		return ResponseEntity.ok(this.bookingService.deleteBookingsByIds(ids));
+	}
+	
 	@DeleteMapping("/delete/{id}")
 	public ResponseEntity<BookingDto> deleteBookingById(@PathVariable final Long id) {
 		return ResponseEntity.ok(this.bookingService.deleteBookingById(id));
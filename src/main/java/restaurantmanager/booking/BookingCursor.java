@@ -0,0 +1,47 @@
+package restaurantmanager.booking;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import restaurantmanager.KeysetPagination;
+
+/**
+ * Position of the last booking of a page in the (booking_date, booking_time, id) order bookings are paged in.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@ToString
+final class BookingCursor {
+	
+	private static final String SEPARATOR = "_";
+	private static final Long FIRST_ID = 0L;
+	
+	private final LocalDate bookingDate;
+	private final LocalTime bookingTime;
+	private final Long id;
+	
+	static BookingCursor decode(final String cursor, final LocalDate from) {
+		if (cursor == null || cursor.isBlank()) {
+			// ids are positive, so the first page starts with the bookings at midnight of the first day
+			return new BookingCursor(from, LocalTime.MIN, FIRST_ID);
+		}
+		final var parts = KeysetPagination.decodeCursorText(cursor).split(SEPARATOR);
+		if (parts.length != 3) {
+			throw KeysetPagination.invalidCursor(cursor);
+		}
+		try {
+			return new BookingCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.valueOf(parts[2]));
+		} catch (final DateTimeParseException | NumberFormatException e) {
+			throw KeysetPagination.invalidCursor(cursor);
+		}
+	}
+	
+	static String encode(final Booking booking) {
+		return KeysetPagination.encodeCursorText(booking.getBookingDate() + SEPARATOR + booking.getBookingTime() + SEPARATOR + booking.getId());
+	}
+}
@@ -1,6 +1,139 @@
 package restaurantmanager.booking;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface BookingDao extends JpaRepository<Booking, Long> {
+	
+	List<Booking> findAllBy(final Pageable pageable);
+	
+	// pages follow bookings_booking_date_booking_time_idx, the id only orders bookings made for the same time
+	@Query(value = "select * from bookings "
+			+ "where (booking_date, booking_time) >= (:bookingDate, :bookingTime) "
+			+ "and (booking_date, booking_time, id) > (:bookingDate, :bookingTime, :id) and booking_date <= :to "
+			+ "order by booking_date, booking_time, id limit :limit", nativeQuery = true)
+	List<Booking> findPageAfter(@Param("bookingDate") final LocalDate bookingDate,
+								@Param("bookingTime") final LocalTime bookingTime,
+								@Param("id") final Long id,
+								@Param("to") final LocalDate to,
+									  @Param("limit") final int limit);
+	
+	// follows the bookings_board_slot_uk index
+	@Query(value = "select * from bookings "
+			+ "where board_id = :boardId and (booking_date, booking_time) >= (:bookingDate, :bookingTime) "
+			+ "and (booking_date, booking_time, id) > (:bookingDate, :bookingTime, :id) and booking_date <= :to "
+			+ "order by booking_date, booking_time, id limit :limit", nativeQuery = true)
+	List<Booking> findPageByBoardIdAfter(@Param("boardId") final Long boardId,
+										 @Param("bookingDate") final LocalDate bookingDate,
+										 @Param("bookingTime") final LocalTime bookingTime,
+										 @Param("id") final Long id,
+										 @Param("to") final LocalDate to,
+										 @Param("limit") final int limit);
+	
+	// follows the bookings_employee_id_booking_date_idx index
+	@Query(value = "select * from bookings "
+			+ "where employee_id = :employeeId and booking_date >= :bookingDate "
+			+ "and (booking_date, booking_time, id) > (:bookingDate, :bookingTime, :id) and booking_date <= :to "
+			+ "order by booking_date, booking_time, id limit :limit", nativeQuery = true)
+	List<Booking> findPageByEmployeeIdAfter(@Param("employeeId") final Long employeeId,
+											@Param("bookingDate") final LocalDate bookingDate,
+											@Param("bookingTime") final LocalTime bookingTime,
+											@Param("id") final Long id,
+											@Param("to") final LocalDate to,
+									  @Param("limit") final int limit);
+	
+	@Query(value = "select * from bookings where sync_version >= :syncVersion and id > :afterId order by id limit :limit", nativeQuery = true)
+	List<Booking> findAllChangedSince(@Param("syncVersion") final Long syncVersion,
+									  @Param("afterId") final Long afterId,
+									  @Param("limit") final int limit);
+	
+	@QueryHints({
+			@QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HINT_READONLY, value = "true")})
+	@Query("select b from Booking b order by b.id")
+	Stream<Booking> streamAllBy();
+	
+	// loads days the availability engine keeps until the next change, so it reads them from the primary
+	// in a read-write transaction instead of a replica that may not have the latest bookings yet
+	@Transactional
+	List<Booking> findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(final LocalDate from,
+																				 final LocalDate to);
+	
+	List<Booking> findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(final LocalDate from,
+																				 final LocalDate to,
+																				 final Pageable pageable);
+	
+	List<Booking> findAllByBoardIdAndBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(final Long boardId,
+																						   final LocalDate from,
+																						   final LocalDate to,
+																						   final Pageable pageable);
+	
+	List<Booking> findAllByEmployeeIdAndBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(final Long employeeId,
+																							  final LocalDate from,
+																							  final LocalDate to,
+																							  final Pageable pageable);
+	
+	// a read-write transaction keeps the check on the primary, a lagging replica could miss a booking written just before
+	@Transactional
+	@Query("select case when count(b) > 0 then true else false end from Booking b "
+			+ "where b.boardId = :boardId and b.bookingDate = :bookingDate "
+			+ "and b.bookingTime between :from and :to and b.id <> :excludedId")
+	boolean existsOverlappingBooking(@Param("boardId") final Long boardId,
+									 @Param("bookingDate") final LocalDate bookingDate,
+									 @Param("from") final LocalTime from,
+									 @Param("to") final LocalTime to,
+									 @Param("excludedId") final Long excludedId);
+									 
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Transactional
+	@Query("update Booking b set b.bookingDate = :#{#booking.bookingDate}, b.bookingTime = :#{#booking.bookingTime}, b.createdAt = :#{#booking.createdAt}, "
+			+ "b.boardId = :#{#booking.boardId}, b.employeeId = :#{#booking.employeeId}, b.personalData = :#{#booking.personalData}, "
+			+ "b.phoneNumber = :#{#booking.phoneNumber}, b.description = :#{#booking.description} "
+			+ "where b.id = :#{#booking.id}")
+	int update(@Param("booking") final Booking booking);
+	
+	// decide whether and where a booking is written, a lagging replica could miss a booking created or moved just before
+	@Transactional
+	@Query("select case when count(b) > 0 then true else false end from Booking b where b.id = :id")
+	boolean existsOnPrimaryById(@Param("id") final Long id);
+	
+	@Transactional
+	@Query("select b from Booking b where b.id = :id")
+	Optional<Booking> findOnPrimaryById(@Param("id") final Long id);
+	
+	@Query(value = "select cast(extract(epoch from booking_duration()) / 60 as integer)", nativeQuery = true)
+	int findConstrainedBookingDurationMinutes();
+	
+	@Transactional
+	@Query(value = "delete from bookings where id = :id returning *", nativeQuery = true)
+	Optional<Booking> deleteReturningById(@Param("id") final Long id);
+	
+	@Transactional
+	@Query(value = "delete from bookings where id in (:ids) returning *", nativeQuery = true)
+	List<Booking> deleteReturningByIdIn(@Param("ids") final Collection<Long> ids);
+	
+	@Transactional
+	default Optional<Booking> patchById(final Long id, final Consumer<Booking> patch) {
+		final var booking = this.findById(id);
+		booking.ifPresent(patch);
+		return booking;
+	}
 }
@@ -0,0 +1,36 @@
+package restaurantmanager.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fails startup when restaurantmanager.booking.duration-minutes differs from booking_duration() of the schema, because
+ * the exclusion constraint would then reject other overlaps than the ones checked before a write. Schemas not created
+ * by the migrations have neither the function nor the constraint, so the check only runs with Flyway.
+ */
+@Component
+@ConditionalOnProperty(value = "spring.flyway.enabled", matchIfMissing = true)
+class BookingDurationCheck {
+	
+	private final BookingDao bookingDao;
+	private final int bookingDurationMinutes;
+	
+	BookingDurationCheck(final BookingDao bookingDao,
+						 @Value("${restaurantmanager.booking.duration-minutes:120}") final int bookingDurationMinutes) {
+		this.bookingDao = bookingDao;
+		this.bookingDurationMinutes = bookingDurationMinutes;
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void check() {
+		final var constrainedMinutes = this.bookingDao.findConstrainedBookingDurationMinutes();
+		if (constrainedMinutes != this.bookingDurationMinutes) {
+			throw new IllegalStateException("restaurantmanager.booking.duration-minutes=" + this.bookingDurationMinutes
+											+ " does not match booking_duration()=" + constrainedMinutes
+											+ " used by " + BookingConflictGuard.BOARD_OVERLAP_CONSTRAINT);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package restaurantmanager.booking;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+class BookingExporter {
+	
+	private static final int FLUSH_INTERVAL = 1000;
+	
+	private final BookingDao bookingDao;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter bookingWriter;
+	
+	BookingExporter(final BookingDao bookingDao, final EntityManager entityManager, final ObjectMapper objectMapper) {
+		this.bookingDao = bookingDao;
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		this.bookingWriter = objectMapper.writerFor(BookingDto.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+	
+	@Transactional(readOnly = true)
+	public long export(final OutputStream outputStream) throws IOException {
+		long exported = 0L;
+		try (final var generator = this.objectMapper.getFactory().createGenerator(outputStream);
+			 final var bookings = this.bookingDao.streamAllBy()) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			// rows are separated by new lines instead of the default root value separator
+			generator.setRootValueSeparator(null);
+			
+			for (final var iterator = bookings.iterator(); iterator.hasNext(); ) {
+				final var booking = iterator.next();
+				this.bookingWriter.writeValue(generator, BookingMapper.INSTANCE.map(booking));
+				generator.writeRaw('\n');
+				// exported rows are not needed anymore, so the persistence context stays empty
+				this.entityManager.detach(booking);
+				
+				if (++exported % FLUSH_INTERVAL == 0) {
+					generator.flush();
+				}
+			}
+			generator.flush();
+		}
+		log.info("Exported bookings count={}", exported);
+		return exported;
+	}
+}
@@ -1,49 +1,176 @@
 package restaurantmanager.booking;
 
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static restaurantmanager.PayloadLogging.PAYLOAD;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.BadRequestException;
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.ByIdsLookup;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.ConflictException;
+import restaurantmanager.CursorPageDto;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
+import restaurantmanager.board.AvailabilityEngine;
+import restaurantmanager.events.ChangeEvent;
 
 @Slf4j
 @Service
 public class BookingService {
 	
+	static final String CHANGE_EVENT = "booking";
+	static final String CACHED_COLLECTION = "bookings";
+	
+	private static final long MAX_RANGE_DAYS = 366L;
+	// open date ranges of paged reads are bounded by dates no booking is made outside of
+	private static final LocalDate FIRST_DATE = LocalDate.EPOCH;
+	private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+	private static final int MAX_BULK_DELETE_SIZE = 1000;
+	private static final int MAX_PATCH_ATTEMPTS = 3;
+	
 	private final BookingDao bookingDao;
+	private final AvailabilityEngine availabilityEngine;
+	private final BookingConflictGuard bookingConflictGuard;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final CacheInvalidationBus cacheInvalidationBus;
 	
-	public BookingService(final BookingDao bookingDao) {
+	public BookingService(final BookingDao bookingDao,
+						  final AvailabilityEngine availabilityEngine,
+						  final BookingConflictGuard bookingConflictGuard,
+						  final ApplicationEventPublisher applicationEventPublisher,
+						  final CacheInvalidationBus cacheInvalidationBus) {
 		this.bookingDao = bookingDao;
+		this.availabilityEngine = availabilityEngine;
+		this.bookingConflictGuard = bookingConflictGuard;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.cacheInvalidationBus = cacheInvalidationBus;
 	}
 	
 	List<BookingDto> getAllBookings() {
-		final var bookings = this.bookingDao.findAll()
-				.stream()
-				.map(BookingMapper.INSTANCE::map)
-				.collect(toUnmodifiableList());
-		log.info("Received bookings={}", bookings);
+		final var bookings = mapAll(KeysetPagination.findAllCapped(this.bookingDao::findAllBy, "/bookings/page"));
+		log.info("Received bookings count={}", bookings.size());
+		log.debug(PAYLOAD, "Received bookings={}", bookings);
 		return bookings;
 	}
 	
+	CursorPageDto<BookingDto> getBookingsPage(final String cursor, final Integer size, final LocalDate from, final LocalDate to) {
+		final var page = readPage(cursor, size, from, (after, limit) -> this.bookingDao.findPageAfter(
+				after.getBookingDate(), after.getBookingTime(), after.getId(), lastDate(to), limit));
+		log.info("Received bookings page count={} nextCursor={}", page.getItems().size(), page.getNextCursor());
+		log.debug(PAYLOAD, "Received bookings page={}", page);
+		return page;
+	}
+	
+	CursorPageDto<BookingDto> getBookingsByBoardPage(final Long boardId,
+													 final String cursor,
+													 final Integer size,
+													 final LocalDate from,
+													 final LocalDate to) {
+		final var page = readPage(cursor, size, from, (after, limit) -> this.bookingDao.findPageByBoardIdAfter(
+				boardId, after.getBookingDate(), after.getBookingTime(), after.getId(), lastDate(to), limit));
+		log.info("Received bookings page count={} by boardId={} nextCursor={}", page.getItems().size(), boardId, page.getNextCursor());
+		log.debug(PAYLOAD, "Received bookings page={} by boardId={}", page, boardId);
+		return page;
+	}
+	
+	CursorPageDto<BookingDto> getBookingsByEmployeePage(final Long employeeId,
+														final String cursor,
+														final Integer size,
+														final LocalDate from,
+														final LocalDate to) {
+		final var page = readPage(cursor, size, from, (after, limit) -> this.bookingDao.findPageByEmployeeIdAfter(
+				employeeId, after.getBookingDate(), after.getBookingTime(), after.getId(), lastDate(to), limit));
+		log.info("Received bookings page count={} by employeeId={} nextCursor={}", page.getItems().size(), employeeId, page.getNextCursor());
+		log.debug(PAYLOAD, "Received bookings page={} by employeeId={}", page, employeeId);
+		return page;
+	}
+	
+	List<BookingDto> getBookingsBetween(final LocalDate from, final LocalDate to) {
+		checkDateRange(from, to);
+		final var bookings = mapAll(KeysetPagination.findAllCapped(
+				pageable -> this.bookingDao.findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(from, to, pageable),
+				"/bookings/page"));
+		log.info("Received bookings count={} from={} to={}", bookings.size(), from, to);
+		log.debug(PAYLOAD, "Received bookings={} from={} to={}", bookings, from, to);
+		return bookings;
+	}
+	
+	List<BookingDto> getBookingsByBoardBetween(final Long boardId, final LocalDate from, final LocalDate to) {
+		checkDateRange(from, to);
+		final var bookings = mapAll(KeysetPagination.findAllCapped(
+				pageable -> this.bookingDao.findAllByBoardIdAndBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(boardId, from, to, pageable),
+				"/bookings/byBoard/" + boardId + "/page"));
+		log.info("Received bookings count={} by boardId={} from={} to={}", bookings.size(), boardId, from, to);
+		log.debug(PAYLOAD, "Received bookings={} by boardId={} from={} to={}", bookings, boardId, from, to);
+		return bookings;
+	}
+	
+	List<BookingDto> getBookingsByEmployeeBetween(final Long employeeId, final LocalDate from, final LocalDate to) {
+		checkDateRange(from, to);
+		final var bookings = mapAll(KeysetPagination.findAllCapped(
+				pageable -> this.bookingDao.findAllByEmployeeIdAndBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(employeeId, from, to, pageable),
+				"/bookings/byEmployee/" + employeeId + "/page"));
+		log.info("Received bookings count={} by employeeId={} from={} to={}", bookings.size(), employeeId, from, to);
+		log.debug(PAYLOAD, "Received bookings={} by employeeId={} from={} to={}", bookings, employeeId, from, to);
+		return bookings;
+	}
+	
+	ByIdsDto<BookingDto> getBookingsByIds(final List<Long> ids) {
+		final var result = ByIdsLookup.findInRequestOrder(ids, this.bookingDao::findAllById, Booking::getId, BookingMapper.INSTANCE::map);
+		log.info("Received bookings count={} missingIds={}", result.getItems().size(), result.getMissingIds());
+		log.debug(PAYLOAD, "Received bookings={}", result.getItems());
+		return result;
+	}
+	
 	BookingDto getBookingById(final Long id) {
 		final var receivedBooking = BookingMapper.INSTANCE.map(this.getEntityFromDb(id));
-		log.info("Received booking={}", receivedBooking);
+		log.info("Received booking id={}", receivedBooking.getId());
+		log.debug(PAYLOAD, "Received booking={}", receivedBooking);
 		return receivedBooking;
 	}
 	
 	BookingDto addBooking(final ModifyBookingDto modifyBookingDto) {
-		final var savedBooking = this.bookingDao.save(BookingMapper.INSTANCE.mapFromModify(modifyBookingDto));
-		log.info("Saved booking={}", savedBooking);
-		return BookingMapper.INSTANCE.map(savedBooking);
+		final var savedBooking = this.bookingConflictGuard.writeIfBoardIsFree(null, modifyBookingDto,
+				() -> this.bookingDao.save(BookingMapper.INSTANCE.mapFromModify(modifyBookingDto)));
+		log.info("Saved booking id={}", savedBooking.getId());
+		log.debug(PAYLOAD, "Saved booking={}", savedBooking);
+		this.occupyBoard(savedBooking);
+		return this.publishSaved(BookingMapper.INSTANCE.map(savedBooking));
+	}
+	
+	List<BookingDto> addBookings(final List<ModifyBookingDto> modifyBookingDtos) {
+		final var bookings = modifyBookingDtos.stream()
+				.map(BookingMapper.INSTANCE::mapFromModify)
+				.collect(toUnmodifiableList());
+		final var savedBookings = this.bookingConflictGuard.writeIfBoardsAreFree(modifyBookingDtos,
+				() -> this.bookingDao.saveAll(bookings));
+		log.info("Saved bookings count={}", savedBookings.size());
+		savedBookings.forEach(this::occupyBoard);
+		final var addedBookings = mapAll(savedBookings);
+		addedBookings.forEach(this::publishSaved);
+		return addedBookings;
 	}
 	
 	BookingDto updateBooking(final Long id, final ModifyBookingDto modifyBookingDto) {
-		final var bookingFromDb = this.getEntityFromDb(id);
+		// a missing booking is reported as such before the slot it would take is checked
+		if (!this.bookingDao.existsOnPrimaryById(id)) {
+			throw notFound(id);
+		}
 		final var modifiedBooking = Booking.builder()
-				.id(bookingFromDb.getId())
+				.id(id)
 				.bookingDate(modifyBookingDto.getBookingDate())
 				.bookingTime(modifyBookingDto.getBookingTime())
 				.createdAt(modifyBookingDto.getCreatedAt())
@@ -53,18 +180,171 @@ public class BookingService {
 				.phoneNumber(modifyBookingDto.getPhoneNumber())
 				.description(modifyBookingDto.getDescription())
 				.build();
-		return BookingMapper.INSTANCE.map(this.bookingDao.save(modifiedBooking));
+		final var updatedRows = this.bookingConflictGuard.writeIfBoardIsFree(id, modifyBookingDto,
+				() -> this.bookingDao.update(modifiedBooking));
+		if (updatedRows == 0) {
+			throw notFound(id);
+		}
+		this.occupyBoard(modifiedBooking);
+		return this.publishSaved(BookingMapper.INSTANCE.map(modifiedBooking));
+	}
+	
+	BookingDto patchBooking(final Long id, final ModifyBookingDto modifyBookingDto) {
+		final Booking patchedBooking;
+		if (modifyBookingDto.getBoardId() == null && modifyBookingDto.getBookingDate() == null && modifyBookingDto.getBookingTime() == null) {
+			patchedBooking = this.bookingDao.patchById(id, booking -> patch(booking, modifyBookingDto))
+					.orElseThrow(() -> notFound(id));
+		} else {
+			patchedBooking = this.patchSlot(id, modifyBookingDto);
+		}
+		log.info("Saved patchedBooking id={}", patchedBooking.getId());
+		log.debug(PAYLOAD, "Saved patchedBooking={}", patchedBooking);
+		this.occupyBoard(patchedBooking);
+		return this.publishSaved(BookingMapper.INSTANCE.map(patchedBooking));
 	}
 	
 	BookingDto deleteBookingById(final Long id) {
-		final var removedBooking = this.getBookingById(id);
-		this.bookingDao.deleteById(removedBooking.getId());
-		log.info("Removed booking={}", removedBooking);
+		final var removedBooking = this.bookingDao.deleteReturningById(id)
+				.map(BookingMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		this.freeBoard(removedBooking.getId());
+		this.applicationEventPublisher.publishEvent(ChangeEvent.removed(CHANGE_EVENT, removedBooking));
+		log.info("Removed booking id={}", removedBooking.getId());
+		log.debug(PAYLOAD, "Removed booking={}", removedBooking);
 		return removedBooking;
 	}
 	
+	List<BookingDto> deleteBookingsByIds(final List<Long> ids) {
+		if (ids.size() > MAX_BULK_DELETE_SIZE) {
+			throw new BadRequestException("Cannot delete more than " + MAX_BULK_DELETE_SIZE + " bookings at once");
+		}
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		final var removedBookings = mapAll(this.bookingDao.deleteReturningByIdIn(Set.copyOf(ids)));
+		removedBookings.forEach(booking -> {
+			this.freeBoard(booking.getId());
+			this.applicationEventPublisher.publishEvent(ChangeEvent.removed(CHANGE_EVENT, booking));
+		});
+		log.info("Removed bookings count={} of requested ids count={}", removedBookings.size(), ids.size());
+		return removedBookings;
+	}
+	
+	private Booking patchSlot(final Long id, final ModifyBookingDto modifyBookingDto) {
+		// the board has to be free at the slot made of patched and stored values, but the stripes to lock follow from
+		// the stored slot; it is read again under the lock and the check is repeated when another write moved the booking
+		for (var attempt = 1; attempt <= MAX_PATCH_ATTEMPTS; attempt++) {
+			// the slot is compared to the row patchById reads from the primary, so it is read from the primary as well
+			final var storedSlot = slotOf(this.bookingDao.findOnPrimaryById(id).orElseThrow(() -> notFound(id)));
+			final var patchedSlot = ModifyBookingDto.builder()
+					.boardId(valueOrElse(modifyBookingDto.getBoardId(), storedSlot.getBoardId()))
+					.bookingDate(valueOrElse(modifyBookingDto.getBookingDate(), storedSlot.getBookingDate()))
+					.bookingTime(valueOrElse(modifyBookingDto.getBookingTime(), storedSlot.getBookingTime()))
+					.build();
+			final var patched = new AtomicBoolean();
+			final var patchedBooking = this.bookingConflictGuard.writeIfBoardIsFree(id, patchedSlot,
+					() -> this.bookingDao.patchById(id, booking -> {
+						if (isAt(booking, storedSlot)) {
+							patch(booking, modifyBookingDto);
+							patched.set(true);
+						}
+					}).orElseThrow(() -> notFound(id)));
+			if (patched.get()) {
+				return patchedBooking;
+			}
+			log.info("Booking id={} was moved while patching it, attempt={}", id, attempt);
+		}
+		throw new ConflictException("Booking with id=" + id + " was changed concurrently");
+	}
+	
+	private BookingDto publishSaved(final BookingDto booking) {
+		this.applicationEventPublisher.publishEvent(ChangeEvent.saved(CHANGE_EVENT, booking));
+		return booking;
+	}
+	
+	private void occupyBoard(final Booking booking) {
+		this.availabilityEngine.bookingSaved(booking.getId(),
+											 booking.getBoardId(),
+											 booking.getBookingDate(),
+											 booking.getBookingTime());
+		// other instances read the days of the booking again, a booking without a date only leaves the days it was on
+		if (booking.getBookingDate() == null) {
+			this.cacheInvalidationBus.publish(CACHED_COLLECTION, booking.getId());
+		} else {
+			this.cacheInvalidationBus.publish(CACHED_COLLECTION, booking.getId(), booking.getBookingDate().toString());
+		}
+	}
+	
+	private void freeBoard(final Long bookingId) {
+		this.availabilityEngine.bookingRemoved(bookingId);
+		this.cacheInvalidationBus.publish(CACHED_COLLECTION, bookingId);
+	}
+	
 	private Booking getEntityFromDb(final Long id) {
 		return this.bookingDao.findById(id)
-				.orElseThrow(() -> new NotFoundException("Booking with id=" + id + " not found"));
+				.orElseThrow(() -> notFound(id));
+	}
+	
+	private static ModifyBookingDto slotOf(final Booking booking) {
+		return ModifyBookingDto.builder()
+				.boardId(booking.getBoardId())
+				.bookingDate(booking.getBookingDate())
+				.bookingTime(booking.getBookingTime())
+				.build();
+	}
+	
+	private static boolean isAt(final Booking booking, final ModifyBookingDto slot) {
+		return Objects.equals(booking.getBoardId(), slot.getBoardId())
+				&& Objects.equals(booking.getBookingDate(), slot.getBookingDate())
+				&& Objects.equals(booking.getBookingTime(), slot.getBookingTime());
+	}
+	
+	private static void patch(final Booking booking, final ModifyBookingDto modifyBookingDto) {
+		Optional.ofNullable(modifyBookingDto.getBookingDate()).ifPresent(booking::setBookingDate);
+		Optional.ofNullable(modifyBookingDto.getBookingTime()).ifPresent(booking::setBookingTime);
+		Optional.ofNullable(modifyBookingDto.getCreatedAt()).ifPresent(booking::setCreatedAt);
+		Optional.ofNullable(modifyBookingDto.getBoardId()).ifPresent(booking::setBoardId);
+		Optional.ofNullable(modifyBookingDto.getEmployeeId()).ifPresent(booking::setEmployeeId);
+		Optional.ofNullable(modifyBookingDto.getPersonalData()).ifPresent(booking::setPersonalData);
+		Optional.ofNullable(modifyBookingDto.getPhoneNumber()).ifPresent(booking::setPhoneNumber);
+		Optional.ofNullable(modifyBookingDto.getDescription()).ifPresent(booking::setDescription);
+	}
+	
+	private static <T> T valueOrElse(final T value, final T other) {
+		return value != null ? value : other;
+	}
+	
+	private static NotFoundException notFound(final Long id) {
+		return new NotFoundException("Booking with id=" + id + " not found");
+	}
+	
+	private static void checkDateRange(final LocalDate from, final LocalDate to) {
+		if (from.isAfter(to)) {
+			throw new BadRequestException("Date from=" + from + " is after to=" + to);
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+			throw new BadRequestException("Date range from=" + from + " to=" + to + " exceeds " + MAX_RANGE_DAYS + " days");
+		}
+	}
+	
+	private static CursorPageDto<BookingDto> readPage(final String cursor,
+													  final Integer size,
+													  final LocalDate from,
+													  final BiFunction<BookingCursor, Integer, List<Booking>> query) {
+		final var pageSize = KeysetPagination.pageSize(size);
+		final var after = BookingCursor.decode(cursor, from == null ? FIRST_DATE : from);
+		// one row more than requested tells whether a next page exists without a count query
+		final var rows = query.apply(after, pageSize + 1);
+		return KeysetPagination.toPageWithCursor(rows, pageSize, BookingCursor::encode, BookingMapper.INSTANCE::map);
+	}
+	
+	private static LocalDate lastDate(final LocalDate to) {
+		return to == null ? LAST_DATE : to;
+	}
+	
+	private static List<BookingDto> mapAll(final List<Booking> bookings) {
+		return bookings.stream()
+				.map(BookingMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
 	}
 }
@@ -0,0 +1,32 @@
+package restaurantmanager.employee;
+
+import org.springframework.stereotype.Component;
+
+import restaurantmanager.CacheInvalidation;
+import restaurantmanager.CacheInvalidationListener;
+import restaurantmanager.EntityCacheEvictor;
+
+@Component
+class EmployeeCacheInvalidationListener implements CacheInvalidationListener {
+	
+	private final EntityCacheEvictor entityCacheEvictor;
+	
+	EmployeeCacheInvalidationListener(final EntityCacheEvictor entityCacheEvictor) {
+		this.entityCacheEvictor = entityCacheEvictor;
+	}
+	
+	@Override
+	public String getCollection() {
+		return EmployeeService.CACHED_COLLECTION;
+	}
+	
+	@Override
+	public void invalidate(final CacheInvalidation invalidation) {
+		this.entityCacheEvictor.evict(Employee.class, invalidation.getId());
+	}
+	
+	@Override
+	public void invalidateAll() {
+		this.entityCacheEvictor.evictAll(Employee.class);
+	}
+}
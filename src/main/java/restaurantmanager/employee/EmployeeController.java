@@ -5,13 +5,18 @@ import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.CursorPageDto;
+
 @RestController
 @RequestMapping("/employees")
 public class EmployeeController {
@@ -27,6 +32,17 @@ public class EmployeeController {
 		return ResponseEntity.ok(this.employeeService.getAllEmployees());
 	}
 	
+	@GetMapping("/page")
+	public ResponseEntity<CursorPageDto<EmployeeDto>> getEmployeesPage(@RequestParam(required = false) final String cursor,
+																	   @RequestParam(required = false) final Integer size) {
+		return ResponseEntity.ok(this.employeeService.getEmployeesPage(cursor, size));
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<ByIdsDto<EmployeeDto>> getEmployeesByIds(@RequestParam final List<Long> ids) {
+		return ResponseEntity.ok(this.employeeService.getEmployeesByIds(ids));
+	}
+	
 	@GetMapping("/{id}")
 	public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable final Long id) {
 		return ResponseEntity.ok(this.employeeService.getEmployeeById(id));
@@ -37,12 +53,23 @@ public class EmployeeController {
 		return ResponseEntity.ok(this.employeeService.addEmployee(modifyEmployeeDto));
 	}
 	
+	@PostMapping("/bulk")
+	public ResponseEntity<List<EmployeeDto>> addEmployees(@RequestBody final List<ModifyEmployeeDto> modifyEmployeeDtos) {
+		return ResponseEntity.ok(this.employeeService.addEmployees(modifyEmployeeDtos));
+	}
+	
 	@PutMapping("/update/{id}")
 	public ResponseEntity<EmployeeDto> updateEmployee(@PathVariable final Long id,
 													  @RequestBody final ModifyEmployeeDto modifyEmployeeDto) {
 		return ResponseEntity.ok(this.employeeService.updateEmployee(id, modifyEmployeeDto));
 	}
 	
+	@PatchMapping("/update/{id}")
+	public ResponseEntity<EmployeeDto> patchEmployee(@PathVariable final Long id,
+													 @RequestBody final ModifyEmployeeDto modifyEmployeeDto) {
+		return ResponseEntity.ok(this.employeeService.patchEmployee(id, modifyEmployeeDto));
+	}
+	
 	@DeleteMapping("/delete/{id}")
 	public ResponseEntity<EmployeeDto> deleteEmployeeById(@PathVariable final Long id) {
 		return ResponseEntity.ok(this.employeeService.deleteEmployeeById(id));
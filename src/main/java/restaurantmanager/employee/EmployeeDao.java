@@ -1,6 +1,43 @@
 package restaurantmanager.employee;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface EmployeeDao extends JpaRepository<Employee, Long> {
+	
+	List<Employee> findAllBy(final Pageable pageable);
+	
+	List<Employee> findAllByIdGreaterThan(final Long id, final Pageable pageable);
+	
+	@Query(value = "select * from employees where sync_version >= :syncVersion and id > :afterId order by id limit :limit", nativeQuery = true)
+	List<Employee> findAllChangedSince(@Param("syncVersion") final Long syncVersion,
+									   @Param("afterId") final Long afterId,
+									   @Param("limit") final int limit);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Transactional
+	@Query("update Employee e set e.firstName = :#{#employee.firstName}, e.lastName = :#{#employee.lastName}, e.email = :#{#employee.email}, "
+			+ "e.position = :#{#employee.position}, e.salary = :#{#employee.salary}, e.phoneNumber = :#{#employee.phoneNumber}, "
+			+ "e.startDate = :#{#employee.startDate} "
+			+ "where e.id = :#{#employee.id}")
+	int update(@Param("employee") final Employee employee);
+	
+	@Transactional
+	@Query(value = "delete from employees where id = :id returning *", nativeQuery = true)
+	Optional<Employee> deleteReturningById(@Param("id") final Long id);
+	
+	@Transactional
+	default Optional<Employee> patchById(final Long id, final Consumer<Employee> patch) {
+		final var employee = this.findById(id);
+		employee.ifPresent(patch);
+		return employee;
+	}
 }
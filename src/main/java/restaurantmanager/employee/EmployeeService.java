@@ -1,49 +1,96 @@
 package restaurantmanager.employee;
 
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static restaurantmanager.PayloadLogging.PAYLOAD;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.ByIdsLookup;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CursorPageDto;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
 
 @Slf4j
 @Service
 public class EmployeeService {
 	
+	static final String CACHED_COLLECTION = "employees";
+	
 	private final EmployeeDao employeeDao;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final CacheInvalidationBus cacheInvalidationBus;
 	
-	public EmployeeService(final EmployeeDao employeeDao) {
+	public EmployeeService(final EmployeeDao employeeDao,
+						   final EntityCacheEvictor entityCacheEvictor,
+						   final CacheInvalidationBus cacheInvalidationBus) {
 		this.employeeDao = employeeDao;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.cacheInvalidationBus = cacheInvalidationBus;
 	}
 	
 	List<EmployeeDto> getAllEmployees() {
-		final var employees = this.employeeDao.findAll()
+		final var employees = KeysetPagination.findAllCapped(this.employeeDao::findAllBy, "/employees/page")
 				.stream()
 				.map(EmployeeMapper.INSTANCE::map)
 				.collect(toUnmodifiableList());
-		log.info("Received employees={}", employees);
+		log.info("Received employees count={}", employees.size());
+		log.debug(PAYLOAD, "Received employees={}", employees);
 		return employees;
 	}
 	
+	CursorPageDto<EmployeeDto> getEmployeesPage(final String cursor, final Integer size) {
+		final var pageSize = KeysetPagination.pageSize(size);
+		final var rows = this.employeeDao.findAllByIdGreaterThan(KeysetPagination.decodeCursor(cursor),
+															   KeysetPagination.firstRowsById(pageSize));
+		final var page = KeysetPagination.toPage(rows, pageSize, Employee::getId, EmployeeMapper.INSTANCE::map);
+		log.info("Received employees page count={} nextCursor={}", page.getItems().size(), page.getNextCursor());
+		log.debug(PAYLOAD, "Received employees page={}", page);
+		return page;
+	}
+	
+	ByIdsDto<EmployeeDto> getEmployeesByIds(final List<Long> ids) {
+		final var result = ByIdsLookup.findInRequestOrder(ids, this.employeeDao::findAllById, Employee::getId, EmployeeMapper.INSTANCE::map);
+		log.info("Received employees count={} missingIds={}", result.getItems().size(), result.getMissingIds());
+		log.debug(PAYLOAD, "Received employees={}", result.getItems());
+		return result;
+	}
+	
 	EmployeeDto getEmployeeById(final Long id) {
 		final var receivedEmployee = EmployeeMapper.INSTANCE.map(this.getEntityFromDb(id));
-		log.info("Received employee={}", receivedEmployee);
+		log.info("Received employee id={}", receivedEmployee.getId());
+		log.debug(PAYLOAD, "Received employee={}", receivedEmployee);
 		return receivedEmployee;
 	}
 	
 	EmployeeDto addEmployee(final ModifyEmployeeDto modifyEmployeeDto) {
 		final var savedEmployee = this.employeeDao.save(EmployeeMapper.INSTANCE.mapFromModify(modifyEmployeeDto));
-		log.info("Saved employee={}", savedEmployee);
+		log.info("Saved employee id={}", savedEmployee.getId());
+		log.debug(PAYLOAD, "Saved employee={}", savedEmployee);
 		return EmployeeMapper.INSTANCE.map(savedEmployee);
 	}
 	
+	List<EmployeeDto> addEmployees(final List<ModifyEmployeeDto> modifyEmployeeDtos) {
+		final var employees = modifyEmployeeDtos.stream()
+				.map(EmployeeMapper.INSTANCE::mapFromModify)
+				.collect(toUnmodifiableList());
+		final var addedEmployees = this.employeeDao.saveAll(employees)
+				.stream()
+				.map(EmployeeMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+		log.info("Saved employees count={}", addedEmployees.size());
+		return addedEmployees;
+	}
+	
 	EmployeeDto updateEmployee(final Long id, final ModifyEmployeeDto modifyEmployeeDto) {
-		final var employeeFromDb = this.getEntityFromDb(id);
 		final var modifiedEmployee = Employee.builder()
-				.id(employeeFromDb.getId())
+				.id(id)
 				.firstName(modifyEmployeeDto.getFirstName())
 				.lastName(modifyEmployeeDto.getLastName())
 				.email(modifyEmployeeDto.getEmail())
@@ -52,18 +99,50 @@ public class EmployeeService {
 				.phoneNumber(modifyEmployeeDto.getPhoneNumber())
 				.startDate(modifyEmployeeDto.getStartDate())
 				.build();
-		return EmployeeMapper.INSTANCE.map(this.employeeDao.save(modifiedEmployee));
+		if (this.employeeDao.update(modifiedEmployee) == 0) {
+			throw notFound(id);
+		}
+		this.cacheInvalidationBus.publish(CACHED_COLLECTION, id);
+		return EmployeeMapper.INSTANCE.map(modifiedEmployee);
+	}
+	
+	EmployeeDto patchEmployee(final Long id, final ModifyEmployeeDto modifyEmployeeDto) {
+		final var patchedEmployee = this.employeeDao.patchById(id, employee -> patch(employee, modifyEmployeeDto))
+				.map(EmployeeMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		this.cacheInvalidationBus.publish(CACHED_COLLECTION, id);
+		log.info("Saved patchedEmployee id={}", patchedEmployee.getId());
+		log.debug(PAYLOAD, "Saved patchedEmployee={}", patchedEmployee);
+		return patchedEmployee;
 	}
 	
 	EmployeeDto deleteEmployeeById(final Long id) {
-		final var removedEmployee = this.getEmployeeById(id);
-		this.employeeDao.deleteById(removedEmployee.getId());
-		log.info("Removed employee={}", removedEmployee);
+		final var removedEmployee = this.employeeDao.deleteReturningById(id)
+				.map(EmployeeMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		this.entityCacheEvictor.evict(Employee.class, id);
+		this.cacheInvalidationBus.publish(CACHED_COLLECTION, id);
+		log.info("Removed employee id={}", removedEmployee.getId());
+		log.debug(PAYLOAD, "Removed employee={}", removedEmployee);
 		return removedEmployee;
 	}
 	
 	private Employee getEntityFromDb(final Long id) {
 		return this.employeeDao.findById(id)
-				.orElseThrow(() -> new NotFoundException("Employee with id=" + id + " not found"));
+				.orElseThrow(() -> notFound(id));
+	}
+	
+	private static void patch(final Employee employee, final ModifyEmployeeDto modifyEmployeeDto) {
+		Optional.ofNullable(modifyEmployeeDto.getFirstName()).ifPresent(employee::setFirstName);
+		Optional.ofNullable(modifyEmployeeDto.getLastName()).ifPresent(employee::setLastName);
+		Optional.ofNullable(modifyEmployeeDto.getEmail()).ifPresent(employee::setEmail);
+		Optional.ofNullable(modifyEmployeeDto.getPosition()).ifPresent(employee::setPosition);
+		Optional.ofNullable(modifyEmployeeDto.getSalary()).ifPresent(employee::setSalary);
+		Optional.ofNullable(modifyEmployeeDto.getPhoneNumber()).ifPresent(employee::setPhoneNumber);
+		Optional.ofNullable(modifyEmployeeDto.getStartDate()).ifPresent(employee::setStartDate);
+	}
+	
+	private static NotFoundException notFound(final Long id) {
+		return new NotFoundException("Employee with id=" + id + " not found");
 	}
 }
@@ -0,0 +1,34 @@
+package restaurantmanager.events;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by services after a write, streamed to the subscribers of /events once the write has been committed.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ChangeEvent {
+	
+	private final String name;
+	private final Action action;
+	private final Object payload;
+	
+	public static ChangeEvent saved(final String name, final Object payload) {
+		return new ChangeEvent(name, Action.SAVED, payload);
+	}
+	
+	public static ChangeEvent removed(final String name, final Object payload) {
+		return new ChangeEvent(name, Action.REMOVED, payload);
+	}
+	
+	public enum Action {
+		SAVED,
+		REMOVED
+	}
+}
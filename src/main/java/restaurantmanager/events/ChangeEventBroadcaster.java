@@ -0,0 +1,272 @@
+package restaurantmanager.events;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+class ChangeEventBroadcaster implements MeterBinder {
+	
+	static final String RESET_EVENT = "reset";
+	
+	private static final String ID_SEPARATOR = "-";
+	private static final StreamedEvent HEARTBEAT = new StreamedEvent(null, 0L, null, null);
+	
+	// sequences start again from one after a restart, the instance id keeps old event ids from resuming there
+	private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+	private final ObjectMapper objectMapper;
+	private final int replaySize;
+	private final int clientBufferSize;
+	private final long timeoutMillis;
+	private final ScheduledExecutorService executor;
+	private final Deque<StreamedEvent> replay = new ArrayDeque<>();
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final AtomicLong slowConsumerDisconnections = new AtomicLong();
+	
+	private long sequence;
+	
+	ChangeEventBroadcaster(final ObjectMapper objectMapper,
+						   @Value("${restaurantmanager.events.replay-size:1000}") final int replaySize,
+						   @Value("${restaurantmanager.events.client-buffer-size:256}") final int clientBufferSize,
+						   @Value("${restaurantmanager.events.timeout-seconds:1800}") final long timeoutSeconds,
+						   @Value("${restaurantmanager.events.heartbeat-seconds:15}") final long heartbeatSeconds,
+						   @Value("${restaurantmanager.events.dispatch-threads:4}") final int dispatchThreads) {
+		this.objectMapper = objectMapper;
+		this.replaySize = replaySize;
+		this.clientBufferSize = clientBufferSize;
+		this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+		this.executor = Executors.newScheduledThreadPool(dispatchThreads, runnable -> {
+			final var thread = new Thread(runnable, "change-events");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// proxies drop idle streams, and a closed connection is only noticed when something is written to it
+		this.executor.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+	}
+	
+	// services write outside of transactions as well, those events are streamed right away
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onChange(final ChangeEvent change) {
+		this.publish(change);
+	}
+	
+	SseEmitter subscribe(final String lastEventId) {
+		return this.subscribe(lastEventId, new SseEmitter(this.timeoutMillis));
+	}
+	
+	SseEmitter subscribe(final String lastEventId, final SseEmitter emitter) {
+		final var subscriber = new Subscriber(emitter);
+		emitter.onCompletion(() -> this.subscribers.remove(subscriber));
+		emitter.onError(error -> this.subscribers.remove(subscriber));
+		// the client reconnects with its last event id, so a timeout only bounds the lifetime of a connection
+		emitter.onTimeout(emitter::complete);
+		synchronized (this) {
+			this.replayTo(subscriber, lastEventId);
+			this.subscribers.add(subscriber);
+		}
+		log.info("Subscribed to change events lastEventId={} subscribers={}", lastEventId, this.subscribers.size());
+		return emitter;
+	}
+	
+	synchronized void publish(final ChangeEvent change) {
+		final var eventSequence = ++this.sequence;
+		final var event = new StreamedEvent(this.eventId(eventSequence), eventSequence, change.getName(), this.serialize(change));
+		this.replay.addLast(event);
+		if (this.replay.size() > this.replaySize) {
+			this.replay.removeFirst();
+		}
+		this.subscribers.forEach(subscriber -> subscriber.offer(event));
+		log.debug("Published change event id={} name={} subscribers={}", event.getId(), event.getName(), this.subscribers.size());
+	}
+	
+	int getSubscriberCount() {
+		return this.subscribers.size();
+	}
+	
+	long getSlowConsumerDisconnections() {
+		return this.slowConsumerDisconnections.get();
+	}
+	
+	@PreDestroy
+	void close() {
+		this.executor.shutdownNow();
+		this.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		this.subscribers.clear();
+	}
+	
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		Gauge.builder("events.subscribers", this, ChangeEventBroadcaster::getSubscriberCount)
+				.register(registry);
+		FunctionCounter.builder("events.disconnections", this, ChangeEventBroadcaster::getSlowConsumerDisconnections)
+				.tag("reason", "slow-consumer")
+				.register(registry);
+	}
+	
+	private void replayTo(final Subscriber subscriber, final String lastEventId) {
+		if (lastEventId == null || lastEventId.isBlank()) {
+			return;
+		}
+		final var lastSequence = this.sequenceOf(lastEventId);
+		final var oldestSequence = this.replay.isEmpty() ? this.sequence + 1 : this.replay.getFirst().getSequence();
+		final var missed = this.sequence - lastSequence;
+		if (lastSequence < 0 || missed < 0 || lastSequence < oldestSequence - 1 || missed > this.clientBufferSize) {
+			// the missed events are not kept anymore or came from another instance, so the client reloads its lists
+			subscriber.offer(new StreamedEvent(this.eventId(this.sequence), this.sequence, RESET_EVENT, "{}"));
+			return;
+		}
+		this.replay.stream()
+				.filter(event -> event.getSequence() > lastSequence)
+				.forEach(subscriber::offer);
+	}
+	
+	private void sendHeartbeats() {
+		this.subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+	}
+	
+	private String eventId(final long eventSequence) {
+		return this.instanceId + ID_SEPARATOR + eventSequence;
+	}
+	
+	private long sequenceOf(final String eventId) {
+		final var separator = eventId.lastIndexOf(ID_SEPARATOR);
+		if (separator < 0 || !this.instanceId.equals(eventId.substring(0, separator))) {
+			return -1L;
+		}
+		try {
+			return Long.parseLong(eventId.substring(separator + 1));
+		} catch (final NumberFormatException e) {
+			return -1L;
+		}
+	}
+	
+	private String serialize(final ChangeEvent change) {
+		// serialized once per event instead of once per subscriber
+		try {
+			return this.objectMapper.writeValueAsString(ChangeEventDto.builder()
+																.action(change.getAction())
+																.data(change.getPayload())
+																.build());
+		} catch (final JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private final class Subscriber {
+		
+		private final SseEmitter emitter;
+		private final BlockingQueue<StreamedEvent> buffer;
+		private final AtomicBoolean draining = new AtomicBoolean();
+		
+		private Subscriber(final SseEmitter emitter) {
+			this.emitter = emitter;
+			this.buffer = new ArrayBlockingQueue<>(ChangeEventBroadcaster.this.clientBufferSize);
+		}
+		
+		private void offer(final StreamedEvent event) {
+			if (!this.buffer.offer(event)) {
+				this.disconnectSlowConsumer();
+				return;
+			}
+			if (this.draining.compareAndSet(false, true)) {
+				ChangeEventBroadcaster.this.executor.execute(this::drain);
+			}
+		}
+		
+		private void drain() {
+			try {
+				StreamedEvent event;
+				while ((event = this.buffer.poll()) != null) {
+					this.emitter.send(event.toSse());
+				}
+			} catch (final IOException | IllegalStateException e) {
+				// the client went away or the stream was completed, the container completes the emitter itself
+				ChangeEventBroadcaster.this.subscribers.remove(this);
+				this.buffer.clear();
+				log.debug("Dropped change event subscriber after failed send", e);
+			} finally {
+				this.draining.set(false);
+			}
+			// an event offered after the last poll but before the flag was reset would wait for the next one otherwise
+			if (!this.buffer.isEmpty() && this.draining.compareAndSet(false, true)) {
+				ChangeEventBroadcaster.this.executor.execute(this::drain);
+			}
+		}
+		
+		private void disconnectSlowConsumer() {
+			if (!ChangeEventBroadcaster.this.subscribers.remove(this)) {
+				return;
+			}
+			// the client resumes from its last event id, nothing is held in memory for it meanwhile
+			this.buffer.clear();
+			ChangeEventBroadcaster.this.slowConsumerDisconnections.incrementAndGet();
+			// completing waits for a send in progress, so it must not block the publishing thread
+			ChangeEventBroadcaster.this.executor.execute(this.emitter::complete);
+			log.warn("Disconnected slow change event subscriber bufferSize={}", ChangeEventBroadcaster.this.clientBufferSize);
+		}
+	}
+	
+	private static final class StreamedEvent {
+		
+		private final String id;
+		private final long sequence;
+		private final String name;
+		private final String data;
+		
+		private StreamedEvent(final String id, final long sequence, final String name, final String data) {
+			this.id = id;
+			this.sequence = sequence;
+			this.name = name;
+			this.data = data;
+		}
+		
+		private String getId() {
+			return this.id;
+		}
+		
+		private long getSequence() {
+			return this.sequence;
+		}
+		
+		private String getName() {
+			return this.name;
+		}
+		
+		private SseEmitter.SseEventBuilder toSse() {
+			if (this.name == null) {
+				return SseEmitter.event().comment("heartbeat");
+			}
+			return SseEmitter.event()
+					.id(this.id)
+					.name(this.name)
+					.data(this.data);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package restaurantmanager.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+public class ChangeEventController {
+	
+	private static final String LAST_EVENT_ID = "Last-Event-ID";
+	
+	private final ChangeEventBroadcaster changeEventBroadcaster;
+	
+	public ChangeEventController(final ChangeEventBroadcaster changeEventBroadcaster) {
+		this.changeEventBroadcaster = changeEventBroadcaster;
+	}
+	
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) final String lastEventId) {
+		return ResponseEntity.ok(this.changeEventBroadcaster.subscribe(lastEventId));
+	}
+}
@@ -0,0 +1,75 @@
+package restaurantmanager.product;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import restaurantmanager.CollectionVersion;
+
+/**
+ * Serialized and compressed product list of one collection version. Instances are never modified, so they are shared
+ * by all requests until the next product change.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+class MenuSnapshot {
+	
+	static final String GZIP = "gzip";
+	
+	private final CollectionVersion version;
+	private final int count;
+	private final byte[] json;
+	private final byte[] gzip;
+	
+	static MenuSnapshot of(final CollectionVersion version, final int count, final byte[] json) {
+		return new MenuSnapshot(version, count, json, compress(json));
+	}
+	
+	ResponseEntity<byte[]> toResponse(final String acceptEncoding) {
+		final var response = ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (acceptsGzip(acceptEncoding)) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+					.body(this.gzip);
+		}
+		return response.body(this.json);
+	}
+	
+	static boolean acceptsGzip(final String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (final var coding : acceptEncoding.split(",")) {
+			final var parameters = coding.split(";");
+			final var name = parameters[0].trim();
+			if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+				return parameters.length == 1 || !isZeroQuality(parameters[1]);
+			}
+		}
+		return false;
+	}
+	
+	private static boolean isZeroQuality(final String parameter) {
+		final var quality = parameter.trim();
+		return quality.startsWith("q=") && quality.substring(2).matches("0(\\.0{0,3})?");
+	}
+	
+	private static byte[] compress(final byte[] json) {
+		final var outputStream = new ByteArrayOutputStream(json.length / 4 + 64);
+		try (final var gzipStream = new GZIPOutputStream(outputStream)) {
+			gzipStream.write(json);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return outputStream.toByteArray();
+	}
+}
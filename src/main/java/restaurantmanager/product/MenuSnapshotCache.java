@@ -0,0 +1,63 @@
+package restaurantmanager.product;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.CollectionVersion;
+
+@Slf4j
+@Component
+class MenuSnapshotCache {
+	
+	private final ObjectWriter productsWriter;
+	
+	private volatile MenuSnapshot snapshot;
+	
+	MenuSnapshotCache(final ObjectMapper objectMapper) {
+		this.productsWriter = objectMapper.writerFor(new TypeReference<List<ProductDto>>() {
+		});
+	}
+	
+	MenuSnapshot get(final CollectionVersion version, final Supplier<List<ProductDto>> loader) {
+		final var current = this.snapshot;
+		if (isOf(current, version)) {
+			return current;
+		}
+		return this.rebuild(version, loader);
+	}
+	
+	private synchronized MenuSnapshot rebuild(final CollectionVersion version, final Supplier<List<ProductDto>> loader) {
+		// concurrent readers of a new version wait for a single rebuild instead of serializing the list each
+		final var current = this.snapshot;
+		if (isOf(current, version)) {
+			return current;
+		}
+		final var products = loader.get();
+		final var rebuilt = MenuSnapshot.of(version, products.size(), this.serialize(products));
+		this.snapshot = rebuilt;
+		log.info("Rebuilt menu snapshot count={} jsonBytes={} gzipBytes={}",
+				 rebuilt.getCount(), rebuilt.getJson().length, rebuilt.getGzip().length);
+		return rebuilt;
+	}
+	
+	private byte[] serialize(final List<ProductDto> products) {
+		try {
+			return this.productsWriter.writeValueAsBytes(products);
+		} catch (final JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static boolean isOf(final MenuSnapshot snapshot, final CollectionVersion version) {
+		return snapshot != null && snapshot.getVersion().getETag().equals(version.getETag());
+	}
+}
@@ -0,0 +1,171 @@
+package restaurantmanager.product;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+class ProductCache implements MeterBinder {
+	
+	private static final String CACHE_NAME = "products";
+	private static final String ALL_PRODUCTS_KEY = "all";
+	private static final String CATEGORY_KEY_PREFIX = "category:";
+	private static final String PRODUCT_TYPE_KEY_PREFIX = "productType:";
+	
+	private final int maxSize;
+	private final long ttlNanos;
+	private final Map<String, Entry> entries;
+	
+	private long generation;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+	
+	ProductCache(@Value("${restaurantmanager.product-cache.max-size:256}") final int maxSize,
+				 @Value("${restaurantmanager.product-cache.ttl-seconds:300}") final long ttlSeconds) {
+		this.maxSize = maxSize;
+		this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+	}
+	
+	List<ProductDto> getAllProducts(final Supplier<List<ProductDto>> loader) {
+		return this.get(ALL_PRODUCTS_KEY, loader);
+	}
+	
+	List<ProductDto> getAllProductsByCategory(final String category, final Supplier<List<ProductDto>> loader) {
+		return this.get(categoryKey(category), loader);
+	}
+	
+	List<ProductDto> getAllProductsByProductType(final String productType, final Supplier<List<ProductDto>> loader) {
+		return this.get(productTypeKey(productType), loader);
+	}
+	
+	synchronized void evict(final ProductDto product) {
+		this.generation++;
+		this.entries.remove(ALL_PRODUCTS_KEY);
+		this.entries.remove(categoryKey(product.getCategory()));
+		this.entries.remove(productTypeKey(product.getProductType()));
+		// views keyed by the previous category or product type of an updated product
+		this.entries.values().removeIf(entry -> entry.contains(product.getId()));
+		this.invalidations++;
+		log.debug("Evicted product views for productId={}", product.getId());
+	}
+	
+	synchronized void evictAll() {
+		this.generation++;
+		this.entries.clear();
+		this.invalidations++;
+		log.debug("Evicted all product views");
+	}
+	
+	synchronized ProductCacheStats getStats() {
+		return new ProductCacheStats(this.hits, this.misses, this.evictions, this.invalidations, this.entries.size());
+	}
+	
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		// names follow the Micrometer cache conventions, so dashboards for other caches work unchanged
+		FunctionCounter.builder("cache.gets", this, cache -> cache.getStats().getHits())
+				.tag("cache", CACHE_NAME)
+				.tag("result", "hit")
+				.register(registry);
+		FunctionCounter.builder("cache.gets", this, cache -> cache.getStats().getMisses())
+				.tag("cache", CACHE_NAME)
+				.tag("result", "miss")
+				.register(registry);
+		FunctionCounter.builder("cache.evictions", this, cache -> cache.getStats().getEvictions())
+				.tag("cache", CACHE_NAME)
+				.register(registry);
+		FunctionCounter.builder("cache.invalidations", this, cache -> cache.getStats().getInvalidations())
+				.tag("cache", CACHE_NAME)
+				.register(registry);
+		Gauge.builder("cache.size", this, cache -> cache.getStats().getSize())
+				.tag("cache", CACHE_NAME)
+				.register(registry);
+	}
+	
+	private List<ProductDto> get(final String key, final Supplier<List<ProductDto>> loader) {
+		final long loadGeneration;
+		synchronized (this) {
+			final var entry = this.entries.get(key);
+			if (entry != null && !entry.isExpired(System.nanoTime())) {
+				this.hits++;
+				return entry.getProducts();
+			}
+			if (entry != null) {
+				this.entries.remove(key);
+				this.evictions++;
+			}
+			this.misses++;
+			loadGeneration = this.generation;
+		}
+		
+		final var products = loader.get();
+		synchronized (this) {
+			// a product was modified while loading, so the loaded view may already be stale
+			if (loadGeneration == this.generation) {
+				this.entries.put(key, new Entry(products, System.nanoTime() + this.ttlNanos));
+				this.evictLeastRecentlyUsed();
+			}
+		}
+		return products;
+	}
+	
+	private void evictLeastRecentlyUsed() {
+		final var iterator = this.entries.values().iterator();
+		while (this.entries.size() > this.maxSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			this.evictions++;
+		}
+	}
+	
+	private static String categoryKey(final String category) {
+		return CATEGORY_KEY_PREFIX + normalize(category);
+	}
+	
+	private static String productTypeKey(final String productType) {
+		return PRODUCT_TYPE_KEY_PREFIX + normalize(productType);
+	}
+	
+	private static String normalize(final String value) {
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+	
+	private static final class Entry {
+		
+		private final List<ProductDto> products;
+		private final long expiresAt;
+		
+		private Entry(final List<ProductDto> products, final long expiresAt) {
+			this.products = products;
+			this.expiresAt = expiresAt;
+		}
+		
+		private List<ProductDto> getProducts() {
+			return this.products;
+		}
+		
+		private boolean isExpired(final long now) {
+			return now - this.expiresAt >= 0;
+		}
+		
+		private boolean contains(final Long productId) {
+			return productId != null && this.products.stream().anyMatch(product -> productId.equals(product.getId()));
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package restaurantmanager.product;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import restaurantmanager.CacheInvalidation;
+import restaurantmanager.CacheInvalidationListener;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.EntityCacheEvictor;
+
+@Component
+class ProductCacheInvalidationListener implements CacheInvalidationListener {
+	
+	private final ProductCache productCache;
+	private final ProductSearchIndex productSearchIndex;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final CollectionVersions collectionVersions;
+	
+	ProductCacheInvalidationListener(final ProductCache productCache,
+									 final ProductSearchIndex productSearchIndex,
+									 final EntityCacheEvictor entityCacheEvictor,
+									 final CollectionVersions collectionVersions) {
+		this.productCache = productCache;
+		this.productSearchIndex = productSearchIndex;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.collectionVersions = collectionVersions;
+	}
+	
+	@Override
+	public String getCollection() {
+		return ProductService.VERSIONED_COLLECTION;
+	}
+	
+	@Override
+	public void invalidate(final CacheInvalidation invalidation) {
+		final var id = invalidation.getId();
+		this.entityCacheEvictor.evict(Product.class, id);
+		// the update timestamps of the query cache are kept per instance as well
+		this.entityCacheEvictor.evictQueryRegion(ProductDao.QUERY_CACHE_REGION);
+		final var keys = invalidation.getKeys();
+		this.productCache.evict(ProductDto.builder()
+										.id(id)
+										.category(keyAt(keys, ProductService.CATEGORY_KEY))
+										.productType(keyAt(keys, ProductService.PRODUCT_TYPE_KEY))
+										.build());
+		// only the changing instance knows the new row, the index reads it again on the next search
+		this.productSearchIndex.invalidate();
+		this.collectionVersions.bump(ProductService.VERSIONED_COLLECTION);
+	}
+	
+	@Override
+	public void invalidateAll() {
+		this.entityCacheEvictor.evictAll(Product.class);
+		this.entityCacheEvictor.evictQueryRegion(ProductDao.QUERY_CACHE_REGION);
+		this.productCache.evictAll();
+		this.productSearchIndex.invalidate();
+		this.collectionVersions.bump(ProductService.VERSIONED_COLLECTION);
+	}
+	
+	private static String keyAt(final List<String> keys, final int index) {
+		return keys != null && keys.size() > index ? keys.get(index) : null;
+	}
+}
@@ -0,0 +1,25 @@
+package restaurantmanager.product;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ProductCacheStats {
+	
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long invalidations;
+	private final int size;
+	
+	public double getHitRatio() {
+		final var requests = this.hits + this.misses;
+		return requests == 0 ? 0.0 : (double) this.hits / requests;
+	}
+}
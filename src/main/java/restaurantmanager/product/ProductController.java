@@ -1,45 +1,86 @@
 package restaurantmanager.product;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.CollectionVersion;
+import restaurantmanager.CursorPageDto;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
 	
+	private static final String TEXT_CSV_VALUE = "text/csv";
+	
 	private final ProductService productService;
+	private final ProductImporter productImporter;
 	
-	public ProductController(final ProductService productService) {
+	public ProductController(final ProductService productService, final ProductImporter productImporter) {
 		this.productService = productService;
+		this.productImporter = productImporter;
 	}
 	
 	@GetMapping
-	public ResponseEntity<List<ProductDto>> getAllProducts() {
-		return ResponseEntity.ok(this.productService.getAllProducts());
+	public ResponseEntity<byte[]> getAllProducts(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding,
+												 final WebRequest webRequest) {
+		final var snapshot = this.productService.getMenuSnapshot();
+		return snapshot.getVersion().respondIfModified(webRequest, () -> snapshot.toResponse(acceptEncoding));
 	}
 	
 	@GetMapping("/byCategory/{category}")
-	public ResponseEntity<List<ProductDto>> getAllProductsByCategory(@PathVariable final String category) {
-		return ResponseEntity.ok(this.productService.getAllProductsByCategory(category));
+	public ResponseEntity<List<ProductDto>> getAllProductsByCategory(@PathVariable final String category, final WebRequest webRequest) {
+		return this.productService.getVersion().okIfModified(webRequest, () -> this.productService.getAllProductsByCategory(category));
 	}
 	
 	@GetMapping("/byProductType/{productType}")
-	public ResponseEntity<List<ProductDto>> getAllProductsByProductType(@PathVariable final String productType) {
-		return ResponseEntity.ok(this.productService.getAllProductsByProductType(productType));
+	public ResponseEntity<List<ProductDto>> getAllProductsByProductType(@PathVariable final String productType, final WebRequest webRequest) {
+		return this.productService.getVersion().okIfModified(webRequest, () -> this.productService.getAllProductsByProductType(productType));
+	}
+	
+	@GetMapping("/search")
+	public ResponseEntity<List<ProductDto>> searchProducts(@RequestParam("q") final String query,
+														   @RequestParam(required = false) final Integer limit) {
+		return ResponseEntity.ok(this.productService.searchProducts(query, limit));
+	}
+	
+	@GetMapping("/cacheStats")
+	public ResponseEntity<ProductCacheStats> getCacheStats() {
+		return ResponseEntity.ok(this.productService.getCacheStats());
+	}
+	
+	@GetMapping("/page")
+	public ResponseEntity<CursorPageDto<ProductDto>> getProductsPage(@RequestParam(required = false) final String cursor,
+																	 @RequestParam(required = false) final Integer size,
+																	 final WebRequest webRequest) {
+		return this.productService.getVersion().okIfModified(webRequest, () -> this.productService.getProductsPage(cursor, size));
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<ByIdsDto<ProductDto>> getProductsByIds(@RequestParam final List<Long> ids, final WebRequest webRequest) {
+		return this.productService.getVersion().okIfModified(webRequest, () -> this.productService.getProductsByIds(ids));
 	}
 	
 	@GetMapping("/{id}")
-	public ResponseEntity<ProductDto> getProductById(@PathVariable final Long id) {
-		return ResponseEntity.ok(this.productService.getProductById(id));
+	public ResponseEntity<ProductDto> getProductById(@PathVariable final Long id, final WebRequest webRequest) {
+		return CollectionVersion.okIfRowModified(webRequest, () -> this.productService.getProductById(id));
 	}
 	
 	@PostMapping
@@ -47,12 +88,33 @@ public class ProductController {
 		return ResponseEntity.ok(this.productService.addProduct(modifyProductDto));
 	}
 	
+	@PostMapping("/bulk")
+	public ResponseEntity<List<ProductDto>> addProducts(@RequestBody final List<ModifyProductDto> modifyProductDtos) {
+		return ResponseEntity.ok(this.productService.addProducts(modifyProductDtos));
+	}
+	
+	@PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+	public ResponseEntity<ProductImportSummaryDto> importProductsFromCsv(final InputStream body) throws IOException {
+		return ResponseEntity.ok(this.productImporter.importCsv(body));
+	}
+	
+	@PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ProductImportSummaryDto> importProductsFromNdjson(final InputStream body) throws IOException {
+		return ResponseEntity.ok(this.productImporter.importNdjson(body));
+	}
+	
 	@PutMapping("/update/{id}")
 	public ResponseEntity<ProductDto> updateProduct(@PathVariable final Long id,
 													@RequestBody final ModifyProductDto modifyProductDto) {
 		return ResponseEntity.ok(this.productService.updateProduct(id, modifyProductDto));
 	}
 	
+	@PatchMapping("/update/{id}")
+	public ResponseEntity<ProductDto> patchProduct(@PathVariable final Long id,
+												   @RequestBody final ModifyProductDto modifyProductDto) {
+		return ResponseEntity.ok(this.productService.patchProduct(id, modifyProductDto));
+	}
+	
 	@DeleteMapping("/delete/{id}")
 	public ResponseEntity<ProductDto> deleteProductById(@PathVariable final Long id) {
 		return ResponseEntity.ok(this.productService.deleteProductById(id));
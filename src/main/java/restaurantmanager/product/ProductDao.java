@@ -1,12 +1,81 @@
 package restaurantmanager.product;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import restaurantmanager.KeysetPagination;
 
 public interface ProductDao extends JpaRepository<Product, Long> {
 	
-	List<Product> findAllByCategoryIsIgnoreCase(final String category);
+	String QUERY_CACHE_REGION = "product-queries";
+	
+	// lower() instead of the derived upper() matches the products_lower_category_idx expression index;
+	// results stay in ProductCache until the next change, so they are read from the primary in a read-write transaction
+	@Transactional
+	@QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+	@Query("select p from Product p where lower(p.category) = lower(:category)")
+	List<Product> findAllByCategoryIsIgnoreCase(@Param("category") final String category, final Pageable pageable);
+	
+	@Transactional
+	@QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+	@Query("select p from Product p where lower(p.productType) = lower(:productType)")
+	List<Product> findAllByProductTypeIsIgnoreCase(@Param("productType") final String productType, final Pageable pageable);
+	
+	// fills the search index, which is only updated by product changes afterwards
+	@Override
+	@Transactional
+	List<Product> findAll();
+	
+	List<Product> findAllByIdGreaterThan(final Long id, final Pageable pageable);
+	
+	// feeds the cached product list and the menu snapshot built from it, which hold the whole catalogue;
+	// the read-write transaction keeps every page on the primary
+	@Transactional
+	default List<Product> findAllPageByPage() {
+		return KeysetPagination.findAllPageByPage(this::findAllByIdGreaterThan, Product::getId);
+	}
+	
+	@Query(value = "select * from products where sync_version >= :syncVersion and id > :afterId order by id limit :limit", nativeQuery = true)
+	List<Product> findAllChangedSince(@Param("syncVersion") final Long syncVersion,
+									  @Param("afterId") final Long afterId,
+									  @Param("limit") final int limit);
+	
+	// the expression matches products_search_idx, see V2__product_search_index.sql
+	@Query(value = "select * from products "
+			+ "where to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')) @@ to_tsquery('simple', :query) "
+			+ "order by ts_rank(to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')), to_tsquery('simple', :query)) desc, id "
+			+ "limit :limit", nativeQuery = true)
+	List<Product> searchByText(@Param("query") final String query, @Param("limit") final int limit);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Transactional
+	@Query("update Product p set p.name = :#{#product.name}, p.category = :#{#product.category}, p.description = :#{#product.description}, "
+			+ "p.price = :#{#product.price}, p.productType = :#{#product.productType} "
+			+ "where p.id = :#{#product.id}")
+	int update(@Param("product") final Product product);
+	
+	@Transactional
+	@Query(value = "delete from products where id = :id returning *", nativeQuery = true)
+	Optional<Product> deleteReturningById(@Param("id") final Long id);
 	
-	List<Product> findAllByProductTypeIsIgnoreCase(final String productType);
+	@Transactional
+	default Optional<Product> patchById(final Long id, final Consumer<Product> patch) {
+		final var product = this.findById(id);
+		product.ifPresent(patch);
+		return product;
+	}
 }
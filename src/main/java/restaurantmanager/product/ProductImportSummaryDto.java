@@ -0,0 +1,27 @@
+package restaurantmanager.product;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@NoArgsConstructor(access = AccessLevel.PUBLIC)
+@Setter(value = AccessLevel.PUBLIC)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ProductImportSummaryDto {
+	
+	private long accepted;
+	private long rejected;
+	private boolean completed;
+	private List<String> errors;
+}
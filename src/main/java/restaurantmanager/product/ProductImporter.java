@@ -0,0 +1,180 @@
+package restaurantmanager.product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersions;
+
+@Slf4j
+@Component
+class ProductImporter {
+	
+	private static final int MAX_REPORTED_ERRORS = 100;
+	
+	private final ProductDao productDao;
+	private final ProductCache productCache;
+	private final ProductSearchIndex productSearchIndex;
+	private final CollectionVersions collectionVersions;
+	private final CacheInvalidationBus cacheInvalidationBus;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final CsvMapper csvMapper = CsvMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.build();
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	
+	ProductImporter(final ProductDao productDao,
+					final ProductCache productCache,
+					final ProductSearchIndex productSearchIndex,
+					final CollectionVersions collectionVersions,
+					final CacheInvalidationBus cacheInvalidationBus,
+					final EntityManager entityManager,
+					final ObjectMapper objectMapper,
+					final PlatformTransactionManager transactionManager,
+					@Value("${restaurantmanager.product-import.batch-size:500}") final int batchSize) {
+		this.productDao = productDao;
+		this.productCache = productCache;
+		this.productSearchIndex = productSearchIndex;
+		this.collectionVersions = collectionVersions;
+		this.cacheInvalidationBus = cacheInvalidationBus;
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+	}
+	
+	ProductImportSummaryDto importCsv(final InputStream inputStream) throws IOException {
+		final var schema = CsvSchema.emptySchema().withHeader();
+		try (final MappingIterator<ModifyProductDto> rows = this.csvMapper.readerFor(ModifyProductDto.class)
+				.with(schema)
+				.readValues(inputStream)) {
+			return this.importRows(rows);
+		}
+	}
+	
+	ProductImportSummaryDto importNdjson(final InputStream inputStream) throws IOException {
+		try (final MappingIterator<ModifyProductDto> rows = this.objectMapper.readerFor(ModifyProductDto.class)
+				.readValues(inputStream)) {
+			return this.importRows(rows);
+		}
+	}
+	
+	private ProductImportSummaryDto importRows(final MappingIterator<ModifyProductDto> rows) throws IOException {
+		final var batch = new ArrayList<Product>(this.batchSize);
+		final var errors = new ArrayList<String>();
+		long accepted = 0L;
+		long rejected = 0L;
+		long rowNumber = 0L;
+		var completed = true;
+		
+		try {
+			try {
+				while (rows.hasNextValue()) {
+					rowNumber++;
+					final ModifyProductDto row;
+					try {
+						row = rows.nextValue();
+					} catch (final JsonMappingException e) {
+						rejected++;
+						addError(errors, rowNumber, e.getOriginalMessage());
+						continue;
+					}
+					
+					final var violation = validate(row);
+					if (violation != null) {
+						rejected++;
+						addError(errors, rowNumber, violation);
+						continue;
+					}
+					
+					batch.add(ProductMapper.INSTANCE.mapFromModify(row));
+					if (batch.size() == this.batchSize) {
+						accepted += this.saveBatch(batch);
+					}
+				}
+			} catch (final JsonParseException e) {
+				// malformed input cannot be resynchronized, so rows read so far are kept and the rest is skipped
+				completed = false;
+				addError(errors, rowNumber, "malformed input, import stopped: " + e.getOriginalMessage());
+			}
+			accepted += this.saveBatch(batch);
+		} finally {
+			// every batch commits on its own, so the caches are invalidated for saved batches even when a later one failed
+			if (accepted > 0) {
+				this.invalidateCaches();
+			}
+		}
+		
+		final var summary = ProductImportSummaryDto.builder()
+				.accepted(accepted)
+				.rejected(rejected)
+				.completed(completed)
+				.errors(List.copyOf(errors))
+				.build();
+		log.info("Imported products accepted={} rejected={} completed={}", accepted, rejected, completed);
+		return summary;
+	}
+	
+	private void invalidateCaches() {
+		this.productCache.evictAll();
+		// imported rows are not kept, the index reloads them on the next search
+		this.productSearchIndex.invalidate();
+		this.collectionVersions.bump(ProductService.VERSIONED_COLLECTION);
+		this.cacheInvalidationBus.publishAll(ProductService.VERSIONED_COLLECTION);
+	}
+	
+	private int saveBatch(final List<Product> batch) {
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.productDao.saveAll(batch);
+			// saved products are not read again, so they are not kept in the persistence context
+			this.entityManager.flush();
+			this.entityManager.clear();
+		});
+		final var saved = batch.size();
+		batch.clear();
+		return saved;
+	}
+	
+	private static String validate(final ModifyProductDto row) {
+		if (row.getName() == null || row.getName().isBlank()) {
+			return "name is required";
+		}
+		if (row.getPrice() == null) {
+			return "price is required";
+		}
+		if (row.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+			return "price must not be negative";
+		}
+		return null;
+	}
+	
+	private static void addError(final List<String> errors, final long rowNumber, final String message) {
+		if (errors.size() < MAX_REPORTED_ERRORS) {
+			errors.add("row " + rowNumber + ": " + message);
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package restaurantmanager.product;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.BadRequestException;
+
+@Slf4j
+@Component
+class ProductSearchIndex {
+	
+	static final String MEMORY_BACKEND = "memory";
+	static final String POSTGRES_BACKEND = "postgres";
+	static final int DEFAULT_LIMIT = 20;
+	static final int MAX_LIMIT = 100;
+	
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	
+	private static final double EXACT_NAME_SCORE = 4.0;
+	private static final double PREFIX_NAME_SCORE = 2.0;
+	private static final double EXACT_DESCRIPTION_SCORE = 1.0;
+	private static final double PREFIX_DESCRIPTION_SCORE = 0.5;
+	
+	private final ProductDao productDao;
+	private final boolean postgresBackend;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Document> documents = new HashMap<>();
+	private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+	
+	private volatile boolean loaded;
+	
+	ProductSearchIndex(final ProductDao productDao,
+					   @Value("${restaurantmanager.product-search.backend:" + MEMORY_BACKEND + "}") final String backend) {
+		this.productDao = productDao;
+		this.postgresBackend = POSTGRES_BACKEND.equals(backend);
+	}
+	
+	List<ProductDto> search(final String query, final int limit) {
+		final var queryTokens = tokenize(query);
+		if (queryTokens.isEmpty()) {
+			return List.of();
+		}
+		if (this.postgresBackend) {
+			return this.searchInDatabase(queryTokens, limit);
+		}
+		
+		this.ensureLoaded();
+		this.lock.readLock().lock();
+		try {
+			final var candidates = this.findCandidates(queryTokens);
+			return candidates.stream()
+					.map(this.documents::get)
+					.map(document -> new ScoredDocument(document, document.score(queryTokens)))
+					.sorted(Comparator.comparingDouble(ScoredDocument::getScore).reversed()
+									.thenComparingInt(scored -> scored.getDocument().getNameLength())
+									.thenComparing(scored -> scored.getDocument().getProduct().getId()))
+					.limit(limit)
+					.map(scored -> scored.getDocument().getProduct())
+					.collect(toUnmodifiableList());
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	void productSaved(final ProductDto product) {
+		this.productsSaved(List.of(product));
+	}
+	
+	void productsSaved(final Collection<ProductDto> products) {
+		if (this.postgresBackend) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			// an index that is not loaded yet reads the saved products from the database anyway
+			if (this.loaded) {
+				products.forEach(this::index);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	void productRemoved(final Long id) {
+		if (this.postgresBackend) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			this.unindex(id);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	void invalidate() {
+		this.lock.writeLock().lock();
+		try {
+			this.loaded = false;
+			this.documents.clear();
+			this.postings.clear();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	static int resultLimit(final Integer limit) {
+		if (limit == null) {
+			return DEFAULT_LIMIT;
+		}
+		if (limit < 1) {
+			throw new BadRequestException("Limit=" + limit + " must be positive");
+		}
+		return Math.min(limit, MAX_LIMIT);
+	}
+	
+	static List<String> tokenize(final String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+		final var folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+				.replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		return Arrays.stream(TOKEN_SEPARATORS.split(folded))
+				.filter(token -> !token.isEmpty())
+				.distinct()
+				.collect(toUnmodifiableList());
+	}
+	
+	private Set<Long> findCandidates(final List<String> queryTokens) {
+		Set<Long> candidates = null;
+		for (final var queryToken : queryTokens) {
+			// every query token is a prefix, so a half typed word already matches
+			final var matches = new HashSet<Long>();
+			this.postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, true)
+					.values()
+					.forEach(matches::addAll);
+			if (candidates == null) {
+				candidates = matches;
+			} else {
+				candidates.retainAll(matches);
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+		}
+		return candidates;
+	}
+	
+	private List<ProductDto> searchInDatabase(final List<String> queryTokens, final int limit) {
+		// tokens only contain letters and digits, so they are safe to use as tsquery terms
+		final var tsQuery = queryTokens.stream()
+				.map(token -> token + ":*")
+				.collect(joining(" & "));
+		return this.productDao.searchByText(tsQuery, limit)
+				.stream()
+				.map(ProductMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
+	}
+	
+	private void ensureLoaded() {
+		if (this.loaded) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			if (!this.loaded) {
+				final var products = this.productDao.findAll();
+				products.forEach(product -> this.index(ProductMapper.INSTANCE.map(product)));
+				this.loaded = true;
+				log.info("Loaded products count={} into search index", products.size());
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	private void index(final ProductDto product) {
+		this.unindex(product.getId());
+		final var document = new Document(product);
+		this.documents.put(product.getId(), document);
+		document.getTokens().forEach(token -> this.postings.computeIfAbsent(token, key -> new HashSet<>()).add(product.getId()));
+	}
+	
+	private void unindex(final Long id) {
+		final var document = this.documents.remove(id);
+		if (document == null) {
+			return;
+		}
+		for (final var token : document.getTokens()) {
+			final var ids = this.postings.get(token);
+			ids.remove(id);
+			if (ids.isEmpty()) {
+				this.postings.remove(token);
+			}
+		}
+	}
+	
+	private static final class Document {
+		
+		private final ProductDto product;
+		private final Set<String> nameTokens;
+		private final Set<String> descriptionTokens;
+		
+		private Document(final ProductDto product) {
+			this.product = product;
+			this.nameTokens = Set.copyOf(tokenize(product.getName()));
+			this.descriptionTokens = Set.copyOf(tokenize(product.getDescription()));
+		}
+		
+		private ProductDto getProduct() {
+			return this.product;
+		}
+		
+		private int getNameLength() {
+			return this.product.getName() == null ? Integer.MAX_VALUE : this.product.getName().length();
+		}
+		
+		private Set<String> getTokens() {
+			final var tokens = new HashSet<>(this.nameTokens);
+			tokens.addAll(this.descriptionTokens);
+			return tokens;
+		}
+		
+		private double score(final List<String> queryTokens) {
+			var score = 0.0;
+			for (final var queryToken : queryTokens) {
+				if (this.nameTokens.contains(queryToken)) {
+					score += EXACT_NAME_SCORE;
+				} else if (startsWithAny(this.nameTokens, queryToken)) {
+					score += PREFIX_NAME_SCORE;
+				} else if (this.descriptionTokens.contains(queryToken)) {
+					score += EXACT_DESCRIPTION_SCORE;
+				} else {
+					score += PREFIX_DESCRIPTION_SCORE;
+				}
+			}
+			return score;
+		}
+		
+		private static boolean startsWithAny(final Set<String> tokens, final String prefix) {
+			return tokens.stream().anyMatch(token -> token.startsWith(prefix));
+		}
+	}
+	
+	private static final class ScoredDocument {
+		
+		private final Document document;
+		private final double score;
+		
+		private ScoredDocument(final Document document, final double score) {
+			this.document = document;
+			this.score = score;
+		}
+		
+		private Document getDocument() {
+			return this.document;
+		}
+		
+		private double getScore() {
+			return this.score;
+		}
+	}
+}
@@ -1,69 +1,156 @@
 package restaurantmanager.product;
 
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static restaurantmanager.PayloadLogging.PAYLOAD;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.ByIdsDto;
+import restaurantmanager.ByIdsLookup;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersion;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.CursorPageDto;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
 
 @Slf4j
 @Service
 public class ProductService {
 	
+	static final String VERSIONED_COLLECTION = "products";
+	static final int CATEGORY_KEY = 0;
+	static final int PRODUCT_TYPE_KEY = 1;
+	
 	private final ProductDao productDao;
+	private final ProductCache productCache;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final ProductSearchIndex productSearchIndex;
+	private final CollectionVersions collectionVersions;
+	private final MenuSnapshotCache menuSnapshotCache;
+	private final CacheInvalidationBus cacheInvalidationBus;
 	
-	public ProductService(final ProductDao productDao) {
+	public ProductService(final ProductDao productDao,
+						  final ProductCache productCache,
+						  final EntityCacheEvictor entityCacheEvictor,
+						  final ProductSearchIndex productSearchIndex,
+						  final CollectionVersions collectionVersions,
+						  final MenuSnapshotCache menuSnapshotCache,
+						  final CacheInvalidationBus cacheInvalidationBus) {
 		this.productDao = productDao;
+		this.productCache = productCache;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.productSearchIndex = productSearchIndex;
+		this.collectionVersions = collectionVersions;
+		this.menuSnapshotCache = menuSnapshotCache;
+		this.cacheInvalidationBus = cacheInvalidationBus;
+	}
+	
+	CollectionVersion getVersion() {
+		return this.collectionVersions.get(VERSIONED_COLLECTION);
 	}
 	
 	List<ProductDto> getAllProducts() {
-		final var products = this.productDao.findAll()
-				.stream()
-				.map(ProductMapper.INSTANCE::map)
-				.collect(toUnmodifiableList());
-		log.info("Received products={}", products);
+		final var products = this.productCache.getAllProducts(
+				() -> mapAll(this.productDao.findAllPageByPage()));
+		log.info("Received products count={}", products.size());
+		log.debug(PAYLOAD, "Received products={}", products);
 		return products;
 	}
 	
+	MenuSnapshot getMenuSnapshot() {
+		// the snapshot is rebuilt only when the collection version changed since it was serialized
+		final var snapshot = this.menuSnapshotCache.get(this.getVersion(), this::getAllProducts);
+		log.info("Received menu snapshot count={} eTag={}", snapshot.getCount(), snapshot.getVersion().getETag());
+		return snapshot;
+	}
+	
+	CursorPageDto<ProductDto> getProductsPage(final String cursor, final Integer size) {
+		final var pageSize = KeysetPagination.pageSize(size);
+		final var rows = this.productDao.findAllByIdGreaterThan(KeysetPagination.decodeCursor(cursor),
+															   KeysetPagination.firstRowsById(pageSize));
+		final var page = KeysetPagination.toPage(rows, pageSize, Product::getId, ProductMapper.INSTANCE::map);
+		log.info("Received products page count={} nextCursor={}", page.getItems().size(), page.getNextCursor());
+		log.debug(PAYLOAD, "Received products page={}", page);
+		return page;
+	}
+	
 	List<ProductDto> getAllProductsByCategory(final String category) {
-		final var products = this.productDao.findAllByCategoryIsIgnoreCase(category)
-				.stream()
-				.map(ProductMapper.INSTANCE::map)
-				.collect(toUnmodifiableList());
-		log.info("Received products={} by category={}", products, category);
+		final var products = this.productCache.getAllProductsByCategory(category,
+				() -> mapAll(KeysetPagination.findAllCapped(pageable -> this.productDao.findAllByCategoryIsIgnoreCase(category, pageable),
+															"/products/page")));
+		log.info("Received products count={} by category={}", products.size(), category);
+		log.debug(PAYLOAD, "Received products={} by category={}", products, category);
 		return products;
 	}
 	
 	List<ProductDto> getAllProductsByProductType(final String productType) {
-		final var products = this.productDao.findAllByProductTypeIsIgnoreCase(productType)
-				.stream()
-				.map(ProductMapper.INSTANCE::map)
-				.collect(toUnmodifiableList());
-		log.info("Received products={} by productType={}", products, productType);
+		final var products = this.productCache.getAllProductsByProductType(productType,
+				() -> mapAll(KeysetPagination.findAllCapped(pageable -> this.productDao.findAllByProductTypeIsIgnoreCase(productType, pageable),
+															"/products/page")));
+		log.info("Received products count={} by productType={}", products.size(), productType);
+		log.debug(PAYLOAD, "Received products={} by productType={}", products, productType);
+		return products;
+	}
+	
+	List<ProductDto> searchProducts(final String query, final Integer limit) {
+		final var products = this.productSearchIndex.search(query, ProductSearchIndex.resultLimit(limit));
+		log.info("Found products count={} for query={}", products.size(), query);
+		log.debug(PAYLOAD, "Found products={} for query={}", products, query);
 		return products;
 	}
 	
+	ProductCacheStats getCacheStats() {
+		return this.productCache.getStats();
+	}
+	
+	ByIdsDto<ProductDto> getProductsByIds(final List<Long> ids) {
+		final var result = ByIdsLookup.findInRequestOrder(ids, this.productDao::findAllById, Product::getId, ProductMapper.INSTANCE::map);
+		log.info("Received products count={} missingIds={}", result.getItems().size(), result.getMissingIds());
+		log.debug(PAYLOAD, "Received products={}", result.getItems());
+		return result;
+	}
+	
 	ProductDto getProductById(final Long id) {
 		final var receivedProduct = ProductMapper.INSTANCE.map(this.getEntityById(id));
-		log.info("Received product={}", receivedProduct);
+		log.info("Received product id={}", receivedProduct.getId());
+		log.debug(PAYLOAD, "Received product={}", receivedProduct);
 		return receivedProduct;
 	}
 	
 	ProductDto addProduct(final ModifyProductDto modifyProductDto) {
 		final var savedProduct = this.productDao.save(ProductMapper.INSTANCE.mapFromModify(modifyProductDto));
-		log.info("Saved product={}", savedProduct);
-		return ProductMapper.INSTANCE.map(savedProduct);
+		log.info("Saved product id={}", savedProduct.getId());
+		log.debug(PAYLOAD, "Saved product={}", savedProduct);
+		final var addedProduct = ProductMapper.INSTANCE.map(savedProduct);
+		this.productCache.evict(addedProduct);
+		this.productSearchIndex.productSaved(addedProduct);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.publishInvalidation(addedProduct);
+		return addedProduct;
+	}
+	
+	List<ProductDto> addProducts(final List<ModifyProductDto> modifyProductDtos) {
+		final var products = modifyProductDtos.stream()
+				.map(ProductMapper.INSTANCE::mapFromModify)
+				.collect(toUnmodifiableList());
+		final var addedProducts = mapAll(this.productDao.saveAll(products));
+		log.info("Saved products count={}", addedProducts.size());
+		this.productCache.evictAll();
+		this.productSearchIndex.productsSaved(addedProducts);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.cacheInvalidationBus.publishAll(VERSIONED_COLLECTION);
+		return addedProducts;
 	}
 	
 	ProductDto updateProduct(final Long id, final ModifyProductDto modifyProductDto) {
-		final var productFromDb = this.getEntityById(id);
-		log.info("Received product={}", productFromDb);
-		
 		final var modifiedProduct = Product.builder()
-				.id(productFromDb.getId())
+				.id(id)
 				.name(modifyProductDto.getName())
 				.category(modifyProductDto.getCategory())
 				.description(modifyProductDto.getDescription())
@@ -71,20 +158,75 @@ public class ProductService {
 				.productType(modifyProductDto.getProductType())
 				.build();
 		
-		final var updatedProduct = ProductMapper.INSTANCE.map(this.productDao.save(modifiedProduct));
-		log.info("Saved updatedProduct={}", updatedProduct);
+		if (this.productDao.update(modifiedProduct) == 0) {
+			throw notFound(id);
+		}
+		
+		final var updatedProduct = ProductMapper.INSTANCE.map(modifiedProduct);
+		this.productCache.evict(updatedProduct);
+		this.productSearchIndex.productSaved(updatedProduct);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.publishInvalidation(updatedProduct);
+		log.info("Saved updatedProduct id={}", updatedProduct.getId());
+		log.debug(PAYLOAD, "Saved updatedProduct={}", updatedProduct);
 		return updatedProduct;
 	}
 	
+	ProductDto patchProduct(final Long id, final ModifyProductDto modifyProductDto) {
+		final var patchedProduct = this.productDao.patchById(id, product -> patch(product, modifyProductDto))
+				.map(ProductMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		// the product is evicted by id as well, so views of its previous category are dropped too
+		this.productCache.evict(patchedProduct);
+		this.productSearchIndex.productSaved(patchedProduct);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.publishInvalidation(patchedProduct);
+		log.info("Saved patchedProduct id={}", patchedProduct.getId());
+		log.debug(PAYLOAD, "Saved patchedProduct={}", patchedProduct);
+		return patchedProduct;
+	}
+	
 	ProductDto deleteProductById(final Long id) {
-		final var removedProduct = this.getProductById(id);
-		this.productDao.deleteById(removedProduct.getId());
-		log.info("Removed product={}", removedProduct);
+		final var removedProduct = this.productDao.deleteReturningById(id)
+				.map(ProductMapper.INSTANCE::map)
+				.orElseThrow(() -> notFound(id));
+		// cached query results may still list the removed id
+		this.entityCacheEvictor.evict(Product.class, id);
+		this.entityCacheEvictor.evictQueryRegion(ProductDao.QUERY_CACHE_REGION);
+		this.productCache.evict(removedProduct);
+		this.productSearchIndex.productRemoved(id);
+		this.collectionVersions.bump(VERSIONED_COLLECTION);
+		this.publishInvalidation(removedProduct);
+		log.info("Removed product id={}", removedProduct.getId());
+		log.debug(PAYLOAD, "Removed product={}", removedProduct);
 		return removedProduct;
 	}
 	
+	private void publishInvalidation(final ProductDto product) {
+		// other instances evict the views of the product's category and type, keys are read by position
+		this.cacheInvalidationBus.publish(VERSIONED_COLLECTION, product.getId(), product.getCategory(), product.getProductType());
+	}
+	
 	private Product getEntityById(final Long id) {
 		return this.productDao.findById(id)
-				.orElseThrow(() -> new NotFoundException("Product with id=" + id + " not found"));
+				.orElseThrow(() -> notFound(id));
+	}
+	
+	private static void patch(final Product product, final ModifyProductDto modifyProductDto) {
+		Optional.ofNullable(modifyProductDto.getName()).ifPresent(product::setName);
+		Optional.ofNullable(modifyProductDto.getCategory()).ifPresent(product::setCategory);
+		Optional.ofNullable(modifyProductDto.getDescription()).ifPresent(product::setDescription);
+		Optional.ofNullable(modifyProductDto.getPrice()).ifPresent(product::setPrice);
+		Optional.ofNullable(modifyProductDto.getProductType()).ifPresent(product::setProductType);
+	}
+	
+	private static NotFoundException notFound(final Long id) {
+		return new NotFoundException("Product with id=" + id + " not found");
+	}
+	
+	private static List<ProductDto> mapAll(final List<Product> products) {
+		return products.stream()
+				.map(ProductMapper.INSTANCE::map)
+				.collect(toUnmodifiableList());
 	}
 }
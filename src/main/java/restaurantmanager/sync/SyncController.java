@@ -0,0 +1,23 @@
+package restaurantmanager.sync;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+	
+	private final SyncService syncService;
+	
+	public SyncController(final SyncService syncService) {
+		this.syncService = syncService;
+	}
+	
+	@GetMapping
+	public ResponseEntity<SyncDto> getChanges(@RequestParam(required = false) final String since) {
+		return ResponseEntity.ok(this.syncService.getChangesSince(since));
+	}
+}
@@ -0,0 +1,85 @@
+package restaurantmanager.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import restaurantmanager.BadRequestException;
+
+/**
+ * Position of a sync. A sync token only holds the sync version changes are read from; a continuation token also holds
+ * the sync version the sync completes at and the last id returned of every table, until all changes are read.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@ToString
+final class SyncCursor {
+	
+	static final Long FULL_SYNC = 0L;
+	
+	private static final Long FIRST_ID = 0L;
+	private static final String SEPARATOR = "_";
+	private static final int CONTINUATION_PARTS = 7;
+	
+	private final Long since;
+	private final Long completed;
+	private final Long productId;
+	private final Long boardId;
+	private final Long employeeId;
+	private final Long bookingId;
+	private final Long tombstoneId;
+	
+	static SyncCursor decode(final String token) {
+		if (token == null || token.isBlank()) {
+			return start(FULL_SYNC);
+		}
+		try {
+			final var parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+			if (parts.length == 1) {
+				return start(Long.valueOf(parts[0]));
+			}
+			if (parts.length == CONTINUATION_PARTS) {
+				return new SyncCursor(Long.valueOf(parts[0]), Long.valueOf(parts[1]), Long.valueOf(parts[2]), Long.valueOf(parts[3]),
+									  Long.valueOf(parts[4]), Long.valueOf(parts[5]), Long.valueOf(parts[6]));
+			}
+		} catch (final IllegalArgumentException e) {
+			// thrown for invalid Base64 and, as NumberFormatException, for parts that are not numbers
+		}
+		throw new BadRequestException("Sync token=" + token + " is not valid");
+	}
+	
+	static SyncCursor continuation(final Long since,
+								   final Long completed,
+								   final Long productId,
+								   final Long boardId,
+								   final Long employeeId,
+								   final Long bookingId,
+								   final Long tombstoneId) {
+		return new SyncCursor(since, completed, productId, boardId, employeeId, bookingId, tombstoneId);
+	}
+	
+	static String encodeSyncVersion(final Long syncVersion) {
+		return encodeText(syncVersion.toString());
+	}
+	
+	String encode() {
+		return encodeText(String.join(SEPARATOR, this.since.toString(), this.completed.toString(), this.productId.toString(),
+									  this.boardId.toString(), this.employeeId.toString(), this.bookingId.toString(),
+									  this.tombstoneId.toString()));
+	}
+	
+	boolean isFullSync() {
+		return FULL_SYNC.equals(this.since);
+	}
+	
+	private static SyncCursor start(final Long since) {
+		return new SyncCursor(since, null, FIRST_ID, FIRST_ID, FIRST_ID, FIRST_ID, FIRST_ID);
+	}
+	
+	private static String encodeText(final String text) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,34 @@
+package restaurantmanager.sync;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import restaurantmanager.board.BoardDto;
+import restaurantmanager.booking.BookingDto;
+import restaurantmanager.employee.EmployeeDto;
+import restaurantmanager.product.ProductDto;
+
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@NoArgsConstructor(access = AccessLevel.PUBLIC)
+@Setter(value = AccessLevel.PUBLIC)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class SyncDto {
+	
+	private List<ProductDto> products;
+	private List<BoardDto> boards;
+	private List<EmployeeDto> employees;
+	private List<BookingDto> bookings;
+	private List<SyncDeletionDto> deletions;
+	private String token;
+	private Boolean hasMore;
+}
@@ -0,0 +1,119 @@
+package restaurantmanager.sync;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static restaurantmanager.PayloadLogging.PAYLOAD;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+import restaurantmanager.board.Board;
+import restaurantmanager.board.BoardDao;
+import restaurantmanager.board.BoardMapper;
+import restaurantmanager.booking.Booking;
+import restaurantmanager.booking.BookingDao;
+import restaurantmanager.booking.BookingMapper;
+import restaurantmanager.employee.Employee;
+import restaurantmanager.employee.EmployeeDao;
+import restaurantmanager.employee.EmployeeMapper;
+import restaurantmanager.product.Product;
+import restaurantmanager.product.ProductDao;
+import restaurantmanager.product.ProductMapper;
+
+@Slf4j
+@Service
+public class SyncService {
+	
+	private final ProductDao productDao;
+	private final BoardDao boardDao;
+	private final EmployeeDao employeeDao;
+	private final BookingDao bookingDao;
+	private final SyncTombstoneDao syncTombstoneDao;
+	private final int pageSize;
+	
+	public SyncService(final ProductDao productDao,
+					   final BoardDao boardDao,
+					   final EmployeeDao employeeDao,
+					   final BookingDao bookingDao,
+					   final SyncTombstoneDao syncTombstoneDao,
+					   @Value("${restaurantmanager.sync.page-size:1000}") final int pageSize) {
+		this.productDao = productDao;
+		this.boardDao = boardDao;
+		this.employeeDao = employeeDao;
+		this.bookingDao = bookingDao;
+		this.syncTombstoneDao = syncTombstoneDao;
+		this.pageSize = pageSize;
+	}
+	
+	@Transactional(readOnly = true)
+	public SyncDto getChangesSince(final String token) {
+		final var cursor = SyncCursor.decode(token);
+		final var since = cursor.getSince();
+		// read before the first rows of a sync and carried by its continuation tokens, a change committed while they
+		// are read is returned again by the next sync, so clients apply the rows as upserts
+		final var completed = cursor.getCompleted() != null ? cursor.getCompleted() : this.syncTombstoneDao.findCompletedSyncVersion();
+		// every table is read in id order up to the page size, one row more tells whether the sync continues
+		final var limit = this.pageSize + 1;
+		final var products = this.productDao.findAllChangedSince(since, cursor.getProductId(), limit);
+		final var boards = this.boardDao.findAllChangedSince(since, cursor.getBoardId(), limit);
+		final var employees = this.employeeDao.findAllChangedSince(since, cursor.getEmployeeId(), limit);
+		final var bookings = this.bookingDao.findAllChangedSince(since, cursor.getBookingId(), limit);
+		// a full sync replaces the local copy, so it does not need the rows deleted before it
+		final var tombstones = cursor.isFullSync()
+				? List.<SyncTombstone>of()
+				: this.syncTombstoneDao.findAllChangedSince(since, cursor.getTombstoneId(), limit);
+		
+		final var hasMore = Stream.of(products, boards, employees, bookings, tombstones)
+				.anyMatch(rows -> rows.size() > this.pageSize);
+		final var nextToken = hasMore
+				? SyncCursor.continuation(since,
+										  completed,
+										  this.lastId(products, Product::getId, cursor.getProductId()),
+										  this.lastId(boards, Board::getId, cursor.getBoardId()),
+										  this.lastId(employees, Employee::getId, cursor.getEmployeeId()),
+										  this.lastId(bookings, Booking::getId, cursor.getBookingId()),
+										  this.lastId(tombstones, SyncTombstone::getId, cursor.getTombstoneId()))
+						.encode()
+				: SyncCursor.encodeSyncVersion(completed);
+		final var changes = SyncDto.builder()
+				.products(this.mapPage(products, ProductMapper.INSTANCE::map))
+				.boards(this.mapPage(boards, BoardMapper.INSTANCE::map))
+				.employees(this.mapPage(employees, EmployeeMapper.INSTANCE::map))
+				.bookings(this.mapPage(bookings, BookingMapper.INSTANCE::map))
+				.deletions(this.mapPage(tombstones, SyncService::mapDeletion))
+				.token(nextToken)
+				.hasMore(hasMore)
+				.build();
+		log.info("Received changes since={} products={} boards={} employees={} bookings={} deletions={} hasMore={}",
+				 since, changes.getProducts().size(), changes.getBoards().size(), changes.getEmployees().size(),
+				 changes.getBookings().size(), changes.getDeletions().size(), hasMore);
+		log.debug(PAYLOAD, "Received changes={}", changes);
+		return changes;
+	}
+	
+	private <E> Long lastId(final List<E> rows, final Function<E, Long> idExtractor, final Long previousId) {
+		if (rows.isEmpty()) {
+			return previousId;
+		}
+		return idExtractor.apply(rows.get(Math.min(rows.size(), this.pageSize) - 1));
+	}
+	
+	private <E, D> List<D> mapPage(final List<E> rows, final Function<E, D> mapper) {
+		return rows.stream()
+				.limit(this.pageSize)
+				.map(mapper)
+				.collect(toUnmodifiableList());
+	}
+	
+	private static SyncDeletionDto mapDeletion(final SyncTombstone tombstone) {
+		return SyncDeletionDto.builder()
+				.entityType(tombstone.getEntityType())
+				.id(tombstone.getEntityId())
+				.build();
+	}
+}
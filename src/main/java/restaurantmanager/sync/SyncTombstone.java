@@ -0,0 +1,58 @@
+package restaurantmanager.sync;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Immutable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Deleted row, written only by the tombstone triggers of the synced tables.
+ */
+@Entity
+@Immutable
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@NoArgsConstructor(access = AccessLevel.PUBLIC)
+@Getter
+@ToString
+@EqualsAndHashCode
+@Table(name = "sync_tombstones")
+public class SyncTombstone {
+	
+	@Id
+	private Long id;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "entity_type")
+	private EntityType entityType;
+	
+	@Column(name = "entity_id")
+	private Long entityId;
+	
+	@Column(name = "sync_version")
+	private Long syncVersion;
+	
+	@Column(name = "deleted_at")
+	private LocalDateTime deletedAt;
+	
+	public enum EntityType {
+		BOARD,
+		BOOKING,
+		EMPLOYEE,
+		PRODUCT
+	}
+}
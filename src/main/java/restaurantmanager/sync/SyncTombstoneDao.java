@@ -0,0 +1,20 @@
+package restaurantmanager.sync;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SyncTombstoneDao extends JpaRepository<SyncTombstone, Long> {
+	
+	@Query(value = "select * from sync_tombstones where sync_version >= :syncVersion and id > :afterId order by id limit :limit",
+			nativeQuery = true)
+	List<SyncTombstone> findAllChangedSince(@Param("syncVersion") final Long syncVersion,
+											@Param("afterId") final Long afterId,
+											@Param("limit") final int limit);
+											
+	// transactions below the snapshot xmin have all finished, so none of them can still commit a change
+	@Query(value = "select txid_snapshot_xmin(txid_current_snapshot())", nativeQuery = true)
+	Long findCompletedSyncVersion();
+}
@@ -0,0 +1,75 @@
+-- lets the gist exclusion constraint on bookings compare board ids with =
+create extension if not exists btree_gist;
+
+-- length of a booking in the bookings_board_overlap_excl constraint, BookingDurationCheck checks on startup that
+-- restaurantmanager.booking.duration-minutes matches it
+create function booking_duration() returns interval as
+$$
+select interval '120 minutes'
+$$ language sql immutable;
+
+-- sequences are incremented by the entities' allocationSize, the pooled-lo optimizer hands out the ids in between
+create sequence boards_seq start with 1 increment by 50;
+create sequence bookings_seq start with 1 increment by 50;
+create sequence employees_seq start with 1 increment by 50;
+create sequence products_seq start with 1 increment by 50;
+
+create table boards
+(
+    id                bigint not null,
+    number_of_seats   bigint,
+    board_description varchar(255),
+    constraint boards_pkey primary key (id)
+);
+
+create table bookings
+(
+    id            bigint not null,
+    booking_date  date,
+    booking_time  time,
+    created_at    timestamp,
+    board_id      bigint,
+    employee_id   bigint,
+    personal_data varchar(255),
+    phone_number  varchar(255),
+    description   varchar(255),
+    constraint bookings_pkey primary key (id),
+    constraint bookings_board_slot_uk unique (board_id, booking_date, booking_time),
+    -- rejects overlapping bookings of a board written by different instances, which do not share the stripe locks;
+    -- bookings without a date or time are left out, a null bound would make their range unbounded
+    constraint bookings_board_overlap_excl exclude using gist (
+        board_id with =,
+        tsrange(booking_date + booking_time, booking_date + booking_time + booking_duration()) with &&
+    ) where (booking_date is not null and booking_time is not null)
+);
+
+create index bookings_booking_date_booking_time_idx on bookings (booking_date, booking_time);
+create index bookings_employee_id_booking_date_idx on bookings (employee_id, booking_date);
+
+create table employees
+(
+    id           bigint not null,
+    first_name   varchar(255),
+    last_name    varchar(255),
+    email        varchar(255),
+    position     varchar(255),
+    salary       numeric(19, 2),
+    phone_number varchar(255),
+    start_date   date,
+    constraint employees_pkey primary key (id)
+);
+
+create table products
+(
+    id           bigint not null,
+    name         varchar(255),
+    category     varchar(255),
+    description  varchar(255),
+    price        numeric(19, 2),
+    product_type varchar(255),
+    constraint products_pkey primary key (id)
+);
+
+-- case-insensitive product lookups compare lower(column) = lower(?)
+create index products_lower_category_idx on products (lower(category));
+create index products_lower_product_type_idx on products (lower(product_type));
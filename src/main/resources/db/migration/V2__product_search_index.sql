@@ -0,0 +1,3 @@
+-- used by the postgres product search backend, the expression must stay identical to ProductDao.searchByText
+create index products_search_idx on products
+    using gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
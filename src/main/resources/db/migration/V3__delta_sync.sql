@@ -0,0 +1,58 @@
+-- every written row and every tombstone carries the id of the transaction that wrote it, rows committed before
+-- txid_snapshot_xmin(txid_current_snapshot()) can never show up later, which makes that value a safe sync token
+alter table boards add column sync_version bigint not null default 0;
+alter table bookings add column sync_version bigint not null default 0;
+alter table employees add column sync_version bigint not null default 0;
+alter table products add column sync_version bigint not null default 0;
+
+create index boards_sync_version_idx on boards (sync_version);
+create index bookings_sync_version_idx on bookings (sync_version);
+create index employees_sync_version_idx on employees (sync_version);
+create index products_sync_version_idx on products (sync_version);
+
+create table sync_tombstones
+(
+    id           bigint generated always as identity,
+    entity_type  varchar(32) not null,
+    entity_id    bigint      not null,
+    sync_version bigint      not null,
+    deleted_at   timestamp   not null default now(),
+    constraint sync_tombstones_pkey primary key (id)
+);
+
+create index sync_tombstones_sync_version_idx on sync_tombstones (sync_version);
+
+create function set_sync_version() returns trigger as
+$$
+begin
+    new.sync_version = txid_current();
+    return new;
+end;
+$$ language plpgsql;
+
+-- the entity type is passed by the trigger, so it matches SyncTombstone.EntityType whatever the table is called
+create function record_sync_tombstone() returns trigger as
+$$
+begin
+    insert into sync_tombstones (entity_type, entity_id, sync_version) values (tg_argv[0], old.id, txid_current());
+    return old;
+end;
+$$ language plpgsql;
+
+create trigger boards_sync_version before insert or update on boards
+    for each row execute procedure set_sync_version();
+create trigger bookings_sync_version before insert or update on bookings
+    for each row execute procedure set_sync_version();
+create trigger employees_sync_version before insert or update on employees
+    for each row execute procedure set_sync_version();
+create trigger products_sync_version before insert or update on products
+    for each row execute procedure set_sync_version();
+
+create trigger boards_sync_tombstone after delete on boards
+    for each row execute procedure record_sync_tombstone('BOARD');
+create trigger bookings_sync_tombstone after delete on bookings
+    for each row execute procedure record_sync_tombstone('BOOKING');
+create trigger employees_sync_tombstone after delete on employees
+    for each row execute procedure record_sync_tombstone('EMPLOYEE');
+create trigger products_sync_tombstone after delete on products
+    for each row execute procedure record_sync_tombstone('PRODUCT');
@@ -0,0 +1,121 @@
+package restaurantmanager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CacheInvalidationBusTest {
+	
+	private static final String ORIGIN = "other";
+	
+	private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final CacheInvalidationListener productListener = Mockito.mock(CacheInvalidationListener.class);
+	private final CacheInvalidationListener boardListener = Mockito.mock(CacheInvalidationListener.class);
+	
+	private final CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus(this.jdbcTemplate,
+																					   this.objectMapper,
+																					   Mockito.mock(DataSourceProperties.class),
+																					   List.of(this.productListener, this.boardListener),
+																					   true,
+																					   10,
+																					   10L);
+	
+	@BeforeEach
+	void setUp() {
+		when(this.productListener.getCollection()).thenReturn("products");
+		when(this.boardListener.getCollection()).thenReturn("boards");
+	}
+	
+	@Test
+	void receive_Should_InvalidateEntryOfCollection_When_AnotherInstanceChangedIt() throws Exception {
+		// given
+		final var invalidation = createInvalidation(1L, "products", 7L, List.of("mains", "food"));
+		
+		// when
+		this.cacheInvalidationBus.receive(this.objectMapper.writeValueAsString(invalidation));
+		
+		// then
+		verify(this.productListener).invalidate(invalidation);
+		verify(this.boardListener, never()).invalidate(any());
+		verify(this.boardListener, never()).invalidateAll();
+	}
+	
+	@Test
+	void receive_Should_InvalidateWholeCollection_When_IdIsMissing() throws Exception {
+		// given
+		final var invalidation = createInvalidation(1L, "boards", null, List.of());
+		
+		// when
+		this.cacheInvalidationBus.receive(this.objectMapper.writeValueAsString(invalidation));
+		
+		// then
+		verify(this.boardListener).invalidateAll();
+		verify(this.productListener, never()).invalidateAll();
+	}
+	
+	@Test
+	void receive_Should_InvalidateAllCaches_When_MessagesOfInstanceWereMissed() throws Exception {
+		// given
+		this.cacheInvalidationBus.receive(this.objectMapper.writeValueAsString(createInvalidation(1L, "boards", 3L, List.of())));
+		final var invalidation = createInvalidation(3L, "boards", 4L, List.of());
+		
+		// when
+		this.cacheInvalidationBus.receive(this.objectMapper.writeValueAsString(invalidation));
+		
+		// then
+		verify(this.boardListener, never()).invalidate(invalidation);
+		verify(this.boardListener).invalidateAll();
+		verify(this.productListener).invalidateAll();
+	}
+	
+	@Test
+	void receive_Should_InvalidateAllCaches_When_PayloadIsUnreadable() {
+		// when
+		this.cacheInvalidationBus.receive("not json");
+		
+		// then
+		verify(this.productListener).invalidateAll();
+		verify(this.boardListener).invalidateAll();
+	}
+	
+	@Test
+	void receive_Should_IgnoreMessage_When_SentByThisInstance() {
+		// given
+		final var payload = ArgumentCaptor.forClass(Object.class);
+		this.cacheInvalidationBus.publish("products", 1L, "mains", "food");
+		verify(this.jdbcTemplate).queryForList(anyString(), eq(CacheInvalidationBus.CHANNEL), payload.capture());
+		
+		// when
+		this.cacheInvalidationBus.receive((String) payload.getValue());
+		
+		// then
+		verify(this.productListener, never()).invalidate(any());
+		verify(this.productListener, never()).invalidateAll();
+	}
+	
+	private static CacheInvalidation createInvalidation(final long sequence, final String collection, final Long id, final List<String> keys) {
+		return CacheInvalidation.builder()
+				.origin(ORIGIN)
+				.sequence(sequence)
+				.collection(collection)
+				.id(id)
+				.keys(keys)
+				.build();
+	}
+}
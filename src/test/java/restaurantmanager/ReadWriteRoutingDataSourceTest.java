@@ -0,0 +1,76 @@
+package restaurantmanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReadWriteRoutingDataSourceTest {
+	
+	private final DataSource primary = Mockito.mock(DataSource.class);
+	private final DataSource replica = Mockito.mock(DataSource.class);
+	private final Connection primaryConnection = Mockito.mock(Connection.class);
+	private final Connection replicaConnection = Mockito.mock(Connection.class);
+	
+	private final ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(this.primary, this.replica, 60_000L);
+	
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+	
+	@Test
+	void getConnection_Should_UsePrimary_When_TransactionIsNotReadOnly() throws Exception {
+		// given
+		when(this.primary.getConnection()).thenReturn(this.primaryConnection);
+		
+		// when
+		final var result = this.dataSource.getConnection();
+		
+		// then
+		assertThat(result).isSameAs(this.primaryConnection);
+		verify(this.replica, never()).getConnection();
+	}
+	
+	@Test
+	void getConnection_Should_UseReplica_When_TransactionIsReadOnly() throws Exception {
+		// given
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(this.replica.getConnection()).thenReturn(this.replicaConnection);
+		
+		// when
+		final var result = this.dataSource.getConnection();
+		
+		// then
+		assertThat(result).isSameAs(this.replicaConnection);
+		verify(this.primary, never()).getConnection();
+	}
+	
+	@Test
+	void getConnection_Should_FallBackToPrimary_When_ReplicaIsUnavailable() throws Exception {
+		// given
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(this.replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+		when(this.primary.getConnection()).thenReturn(this.primaryConnection);
+		
+		// when
+		final var first = this.dataSource.getConnection();
+		final var second = this.dataSource.getConnection();
+		
+		// then
+		assertThat(first).isSameAs(this.primaryConnection);
+		assertThat(second).isSameAs(this.primaryConnection);
+		// the replica is not asked again until the retry delay has passed
+		verify(this.replica).getConnection();
+	}
+}
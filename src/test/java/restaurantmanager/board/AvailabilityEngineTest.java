@@ -0,0 +1,176 @@
+package restaurantmanager.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import restaurantmanager.booking.Booking;
+import restaurantmanager.booking.BookingDao;
+
+class AvailabilityEngineTest {
+	
+	private static final LocalDate DATE = LocalDate.now().plusDays(10L);
+	
+	private final BoardDao boardDao = Mockito.mock(BoardDao.class);
+	private final BookingDao bookingDao = Mockito.mock(BookingDao.class);
+	
+	private AvailabilityEngine availabilityEngine;
+	
+	@BeforeEach
+	void setUp() {
+		this.availabilityEngine = new AvailabilityEngine(this.boardDao, this.bookingDao, 15, 120, 62, 30L);
+		when(this.boardDao.findAll()).thenReturn(List.of(createBoard(1L, 2L), createBoard(2L, 4L), createBoard(3L, 6L)));
+	}
+	
+	@Test
+	void findAvailableBoards_Should_ReturnBoardsWithEnoughSeats_When_NoBookingsArePresent() {
+		// given
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of());
+		
+		// when
+		final var result = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(18, 0), 4L);
+		
+		// then
+		assertThat(result).extracting(BoardDto::getId).containsExactly(2L, 3L);
+	}
+	
+	@Test
+	void findAvailableBoards_Should_SkipBoards_When_BookingOverlapsRequestedTime() {
+		// given
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of(createBooking(10L, 2L, LocalTime.of(17, 30))));
+		
+		// when
+		final var overlapping = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(18, 0), 4L);
+		final var afterBooking = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(19, 30), 4L);
+		
+		// then
+		assertThat(overlapping).extracting(BoardDto::getId).containsExactly(3L);
+		assertThat(afterBooking).extracting(BoardDto::getId).containsExactly(2L, 3L);
+		verify(this.bookingDao, times(1)).findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(DATE.minusDays(1L), DATE);
+	}
+	
+	@Test
+	void findAvailableBoards_Should_ReflectSavedAndRemovedBookings_When_DayIsLoaded() {
+		// given
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of());
+		this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(18, 0), 1L);
+		
+		// when
+		this.availabilityEngine.bookingSaved(10L, 3L, DATE, LocalTime.of(18, 0));
+		final var afterSave = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(19, 0), 6L);
+		this.availabilityEngine.bookingRemoved(10L);
+		final var afterRemove = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(19, 0), 6L);
+		
+		// then
+		assertThat(afterSave).isEmpty();
+		assertThat(afterRemove).extracting(BoardDto::getId).containsExactly(3L);
+	}
+	
+	@Test
+	void findAvailableBoards_Should_ReflectBoardChanges_When_BoardsAreLoaded() {
+		// given
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of());
+		this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(18, 0), 1L);
+		
+		// when
+		this.availabilityEngine.boardRemoved(3L);
+		this.availabilityEngine.boardSaved(BoardMapper.INSTANCE.map(createBoard(4L, 8L)));
+		final var result = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(18, 0), 6L);
+		
+		// then
+		assertThat(result).extracting(BoardDto::getId).containsExactly(4L);
+	}
+	
+	@Test
+	void findAvailableBoards_Should_SkipBoards_When_BookingOfPreviousDayRunsPastMidnight() {
+		// given
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of(createBooking(10L, 2L, DATE.minusDays(1L), LocalTime.of(23, 30))));
+		
+		// when
+		final var result = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(0, 30), 4L);
+		
+		// then
+		assertThat(result).extracting(BoardDto::getId).containsExactly(3L);
+	}
+	
+	@Test
+	void findAvailableBoards_Should_SkipBoards_When_RequestedTimeRunsIntoBookingOfNextDay() {
+		// given
+		final var nextDate = DATE.plusDays(1L);
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of());
+		when(this.findBookingsLoadedFor(nextDate)).thenReturn(List.of(createBooking(10L, 2L, nextDate, LocalTime.of(0, 30))));
+		
+		// when
+		final var result = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(23, 30), 4L);
+		
+		// then
+		assertThat(result).extracting(BoardDto::getId).containsExactly(3L);
+	}
+	
+	@Test
+	void findAvailableBoards_Should_ReflectSavedBooking_When_BookingRunsIntoLoadedNextDay() {
+		// given
+		final var nextDate = DATE.plusDays(1L);
+		when(this.findBookingsLoadedFor(nextDate)).thenReturn(List.of());
+		this.availabilityEngine.findAvailableBoards(nextDate, LocalTime.of(0, 30), 6L);
+		
+		// when
+		this.availabilityEngine.bookingSaved(10L, 3L, DATE, LocalTime.of(23, 45));
+		final var result = this.availabilityEngine.findAvailableBoards(nextDate, LocalTime.of(0, 30), 6L);
+		
+		// then
+		assertThat(result).isEmpty();
+	}
+	
+	@Test
+	void findAvailableBoards_Should_ReadDaysAgain_When_BookingOfAnotherInstanceIsInvalidated() {
+		// given
+		final var nextDate = DATE.plusDays(1L);
+		when(this.findBookingsLoadedFor(DATE)).thenReturn(List.of(), List.of(createBooking(10L, 3L, LocalTime.of(23, 30))));
+		when(this.findBookingsLoadedFor(nextDate)).thenReturn(List.of(), List.of(createBooking(10L, 3L, LocalTime.of(23, 30))));
+		this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(23, 0), 6L);
+		this.availabilityEngine.findAvailableBoards(nextDate, LocalTime.of(0, 30), 6L);
+		
+		// when
+		this.availabilityEngine.invalidateBooking(10L, List.of(DATE));
+		final var sameDay = this.availabilityEngine.findAvailableBoards(DATE, LocalTime.of(23, 0), 6L);
+		final var nextDay = this.availabilityEngine.findAvailableBoards(nextDate, LocalTime.of(0, 30), 6L);
+		
+		// then
+		assertThat(sameDay).isEmpty();
+		assertThat(nextDay).isEmpty();
+	}
+	
+	private List<Booking> findBookingsLoadedFor(final LocalDate date) {
+		return this.bookingDao.findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(date.minusDays(1L), date);
+	}
+	
+	private static Board createBoard(final Long id, final Long numberOfSeats) {
+		return Board.builder()
+				.id(id)
+				.numberOfSeats(numberOfSeats)
+				.build();
+	}
+	
+	private static Booking createBooking(final Long id, final Long boardId, final LocalTime bookingTime) {
+		return createBooking(id, boardId, DATE, bookingTime);
+	}
+	
+	private static Booking createBooking(final Long id, final Long boardId, final LocalDate bookingDate, final LocalTime bookingTime) {
+		return Booking.builder()
+				.id(id)
+				.boardId(boardId)
+				.bookingDate(bookingDate)
+				.bookingTime(bookingTime)
+				.build();
+	}
+}
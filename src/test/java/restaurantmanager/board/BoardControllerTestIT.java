@@ -19,6 +19,7 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.annotation.DirtiesContext;
@@ -131,6 +132,30 @@ class BoardControllerTestIT {
 		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 	
+	@Test
+	void getBoardById_Should_ReturnStatusCode200AndNewETag_When_EntityChangedWithoutCollectionVersion() {
+		// given
+		final var saved = this.boardDao.save(createBoardEntityWithNulls());
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + BOARDS + SLASH + saved.getId();
+		final var first = this.restTemplate.exchange(baseUrl, HttpMethod.GET, HttpEntity.EMPTY, BoardDto.class);
+		// the row is changed behind the service, so the collection version stays the same
+		this.boardDao.save(saved.toBuilder().numberOfSeats(8L).build());
+		final var headers = new HttpHeaders();
+		headers.setIfNoneMatch(first.getHeaders().getETag());
+		
+		// when
+		final var changed = this.restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(headers), BoardDto.class);
+		headers.setIfNoneMatch(changed.getHeaders().getETag());
+		final var unchanged = this.restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(headers), BoardDto.class);
+		
+		// then
+		assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(changed.getBody()).isNotNull();
+		assertThat(changed.getBody().getNumberOfSeats()).isEqualTo(8L);
+		assertThat(changed.getHeaders().getETag()).isNotEqualTo(first.getHeaders().getETag());
+		assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+	
 	@Test
 	void addBoard_Should_ReturnStatusCode200AndResult_When_SuccessfullyAddedBoard() {
 		// given
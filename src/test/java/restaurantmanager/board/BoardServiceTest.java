@@ -4,17 +4,21 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static restaurantmanager.utils.BoardFixture.createBoardEntity;
 import static restaurantmanager.utils.BoardFixture.createBoardEntityFromModifyDto;
 import static restaurantmanager.utils.BoardFixture.createModifyBoardDto;
 import static restaurantmanager.utils.BoardFixture.createModifyBoardDtoWithNulls;
+import static restaurantmanager.utils.RandomUtilsFixture.createRandomString;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,14 +26,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
+import restaurantmanager.events.ChangeEvent;
 import restaurantmanager.utils.BoardFixture;
 
 @ExtendWith(MockitoExtension.class)
 class BoardServiceTest {
 	
 	private final BoardDao boardDao = Mockito.mock(BoardDao.class);
+	private final AvailabilityEngine availabilityEngine = Mockito.mock(AvailabilityEngine.class);
+	private final EntityCacheEvictor entityCacheEvictor = Mockito.mock(EntityCacheEvictor.class);
+	private final CollectionVersions collectionVersions = Mockito.spy(new CollectionVersions());
+	private final ApplicationEventPublisher applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+	private final CacheInvalidationBus cacheInvalidationBus = Mockito.mock(CacheInvalidationBus.class);
 	
 	@InjectMocks
 	private BoardService boardService;
@@ -42,7 +58,7 @@ class BoardServiceTest {
 	@Test
 	void getAllBoards_Should_ReturnEmptyList_When_EntitiesAreNotPresentInDb() {
 		// given
-		when(this.boardDao.findAll()).thenReturn(emptyList());
+		when(this.boardDao.findAllBy(any(Pageable.class))).thenReturn(emptyList());
 		
 		// when
 		final var result = this.boardService.getAllBoards();
@@ -58,7 +74,7 @@ class BoardServiceTest {
 										createBoardEntity(2L),
 										createBoardEntity(3L));
 		
-		when(this.boardDao.findAll()).thenReturn(boardsToAdd);
+		when(this.boardDao.findAllBy(any(Pageable.class))).thenReturn(boardsToAdd);
 		
 		// when
 		final var result = this.boardService.getAllBoards();
@@ -73,6 +89,49 @@ class BoardServiceTest {
 				.containsAll(boardsToAdd.stream().map(Board::getNumberOfSeats).collect(toUnmodifiableList()));
 	}
 	
+	@Test
+	void getBoardsPage_Should_ReturnNextCursor_When_MoreEntitiesArePresentInDb() {
+		// given
+		when(this.boardDao.findAllByIdGreaterThan(eq(0L), any(Pageable.class)))
+				.thenReturn(List.of(createBoardEntity(1L), createBoardEntity(2L), createBoardEntity(3L)));
+		
+		// when
+		final var result = this.boardService.getBoardsPage(null, 2);
+		
+		// then
+		assertThat(result.getItems()).extracting(BoardDto::getId).containsExactly(1L, 2L);
+		assertThat(KeysetPagination.decodeCursor(result.getNextCursor())).isEqualTo(2L);
+	}
+	
+	@Test
+	void getBoardsPage_Should_ReturnNoCursor_When_LastPageIsReached() {
+		// given
+		when(this.boardDao.findAllByIdGreaterThan(eq(2L), any(Pageable.class)))
+				.thenReturn(List.of(createBoardEntity(3L)));
+		
+		// when
+		final var result = this.boardService.getBoardsPage(KeysetPagination.encodeCursor(2L), 2);
+		
+		// then
+		assertThat(result.getItems()).extracting(BoardDto::getId).containsExactly(3L);
+		assertThat(result.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void getBoardsByIds_Should_ReturnResultInRequestOrder_When_SomeEntitiesNotExist() {
+		// given
+		final var first = createBoardEntity(1L);
+		final var third = createBoardEntity(3L);
+		when(this.boardDao.findAllById(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+		
+		// when
+		final var result = this.boardService.getBoardsByIds(List.of(3L, 2L, 1L, 3L));
+		
+		// then
+		assertThat(result.getItems()).containsExactly(BoardMapper.INSTANCE.map(third), BoardMapper.INSTANCE.map(first));
+		assertThat(result.getMissingIds()).containsExactly(2L);
+	}
+	
 	@Test
 	void getBoardById_Should_ReturnResult_When_EntityExists() {
 		// given
@@ -116,21 +175,51 @@ class BoardServiceTest {
 		// then
 		assertThat(result.getId()).isNotNull().isPositive();
 		BoardFixture.assertBoard(result, boardToAdd);
+		verify(this.applicationEventPublisher).publishEvent(ChangeEvent.saved(BoardService.CHANGE_EVENT, result));
+	}
+	
+	@Test
+	void addBoard_Should_ChangeCollectionVersion() {
+		// given
+		final var boardToAdd = createModifyBoardDto();
+		final var versionBefore = this.boardService.getVersion();
+		
+		// when
+		when(this.boardDao.save(BoardMapper.INSTANCE.mapFromModify(boardToAdd))).thenReturn(createBoardEntityFromModifyDto(1L, boardToAdd));
+		this.boardService.addBoard(boardToAdd);
+		
+		// then
+		assertThat(this.boardService.getVersion().getETag()).isNotEqualTo(versionBefore.getETag());
+		verify(this.collectionVersions).bump(BoardService.VERSIONED_COLLECTION);
+	}
+	
+	@Test
+	void addBoards_Should_SaveAllEntities() {
+		// given
+		final var firstBoardToAdd = createModifyBoardDto();
+		final var secondBoardToAdd = createModifyBoardDto();
+		
+		// when
+		when(this.boardDao.saveAll(List.of(BoardMapper.INSTANCE.mapFromModify(firstBoardToAdd), BoardMapper.INSTANCE.mapFromModify(secondBoardToAdd))))
+				.thenReturn(List.of(createBoardEntityFromModifyDto(1L, firstBoardToAdd), createBoardEntityFromModifyDto(2L, secondBoardToAdd)));
+		final var result = this.boardService.addBoards(List.of(firstBoardToAdd, secondBoardToAdd));
+		
+		// then
+		assertThat(result).extracting(BoardDto::getId).containsExactly(1L, 2L);
+		BoardFixture.assertBoard(result.get(0), firstBoardToAdd);
+		BoardFixture.assertBoard(result.get(1), secondBoardToAdd);
 	}
 	
 	@Test
 	void updateBoard_Should_UpdateBoard() {
 		// given
 		final var id = 1L;
-		final var existingBoard = createBoardEntity(id);
-		when(this.boardDao.findById(id)).thenReturn(Optional.of(existingBoard));
-		
 		final var boardToUpdate = createModifyBoardDto();
 		
 		// when
 		final var entity = createBoardEntityFromModifyDto(id, boardToUpdate);
 		
-		when(this.boardDao.save(entity)).thenReturn(entity);
+		when(this.boardDao.update(entity)).thenReturn(1);
 		final var result = this.boardService.updateBoard(id, boardToUpdate);
 		
 		// then
@@ -142,7 +231,7 @@ class BoardServiceTest {
 	void updateBoard_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.boardDao.findById(id)).thenReturn(Optional.empty());
+		when(this.boardDao.update(any())).thenReturn(0);
 		
 		// when
 		final var throwable = catchThrowable(() -> this.boardService.updateBoard(id, createModifyBoardDtoWithNulls()));
@@ -152,25 +241,64 @@ class BoardServiceTest {
 				.hasMessage("Board with id=" + id + " not found");
 	}
 	
+	@Test
+	void patchBoard_Should_ChangeOnlyGivenFields() {
+		// given
+		final var id = 1L;
+		final var existingBoard = createBoardEntity(id);
+		final var expectedBoard = BoardMapper.INSTANCE.map(existingBoard).toBuilder();
+		when(this.boardDao.patchById(eq(id), any())).thenAnswer(invocation -> {
+			final Consumer<Board> patch = invocation.getArgument(1);
+			patch.accept(existingBoard);
+			return Optional.of(existingBoard);
+		});
+		
+		final var boardToPatch = createModifyBoardDtoWithNulls();
+		boardToPatch.setBoardDescription(createRandomString());
+		
+		// when
+		final var result = this.boardService.patchBoard(id, boardToPatch);
+		
+		// then
+		assertThat(result).isEqualTo(expectedBoard.boardDescription(boardToPatch.getBoardDescription()).build());
+	}
+	
+	@Test
+	void patchBoard_Should_ThrowNotFoundException_When_EntityNotExist() {
+		// given
+		final var id = new Random().nextLong();
+		when(this.boardDao.patchById(eq(id), any())).thenReturn(Optional.empty());
+		
+		// when
+		final var throwable = catchThrowable(() -> this.boardService.patchBoard(id, createModifyBoardDtoWithNulls()));
+		
+		// then
+		assertThat(throwable).isInstanceOf(NotFoundException.class)
+				.hasMessage("Board with id=" + id + " not found");
+	}
+	
 	@Test
 	void deleteBoardById_Should_RemoveEntity_When_EntityExists() {
 		// given
 		final var id = 1L;
 		final var board = createBoardEntity(id);
-		when(this.boardDao.findById(id)).thenReturn(Optional.of(board));
+		when(this.boardDao.deleteReturningById(id)).thenReturn(Optional.of(board));
 		
 		// when
-		this.boardService.deleteBoardById(id);
+		final var result = this.boardService.deleteBoardById(id);
 		
 		//then
-		verify(this.boardDao, times(1)).deleteById(id);
+		assertThat(result).isEqualTo(BoardMapper.INSTANCE.map(board));
+		verify(this.boardDao, never()).findById(id);
+		verify(this.entityCacheEvictor).evict(Board.class, id);
+		verify(this.cacheInvalidationBus).publish(BoardService.VERSIONED_COLLECTION, id);
 	}
 	
 	@Test
 	void deleteBoardById_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.boardDao.findById(id)).thenReturn(Optional.empty());
+		when(this.boardDao.deleteReturningById(id)).thenReturn(Optional.empty());
 		
 		// when
 		final var throwable = catchThrowable(() -> this.boardService.deleteBoardById(id));
@@ -2,6 +2,7 @@ package restaurantmanager.booking;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDate;
 import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -83,4 +84,27 @@ class BookingDaoTestIT {
 		assertThat(result).isEmpty();
 	}
 	
+	@Test
+	void save_Should_SaveEntities_When_BookingsOfSameBoardHaveNoBookingTime() {
+		// given
+		final var bookingDate = LocalDate.now().plusDays(1L);
+		this.bookingDao.save(Booking.builder().boardId(1L).bookingDate(bookingDate).build());
+		
+		// when
+		this.bookingDao.save(Booking.builder().boardId(1L).bookingDate(bookingDate).build());
+		final var result = this.bookingDao.findAll();
+		
+		// then
+		assertThat(result).hasSize(2);
+	}
+	
+	@Test
+	void findConstrainedBookingDurationMinutes_Should_ReturnConfiguredDuration() {
+		// when
+		final var result = this.bookingDao.findConstrainedBookingDurationMinutes();
+		
+		// then
+		assertThat(result).isEqualTo(120);
+	}
+	
 }
\ No newline at end of file
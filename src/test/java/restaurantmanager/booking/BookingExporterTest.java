@@ -0,0 +1,62 @@
+package restaurantmanager.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static restaurantmanager.utils.BookingFixture.createBookingEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BookingExporterTest {
+	
+	private final BookingDao bookingDao = Mockito.mock(BookingDao.class);
+	private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	
+	private final BookingExporter bookingExporter = new BookingExporter(this.bookingDao, this.entityManager, this.objectMapper);
+	
+	@Test
+	void export_Should_WriteOneJsonLinePerBooking_When_EntitiesArePresentInDb() throws Exception {
+		// given
+		final var first = createBookingEntity(1L);
+		final var second = createBookingEntity(2L);
+		when(this.bookingDao.streamAllBy()).thenReturn(Stream.of(first, second));
+		final var outputStream = new ByteArrayOutputStream();
+		
+		// when
+		final var result = this.bookingExporter.export(outputStream);
+		
+		// then
+		final var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(result).isEqualTo(2L);
+		assertThat(lines).hasSize(2);
+		assertThat(this.objectMapper.readValue(lines[0], BookingDto.class)).isEqualTo(BookingMapper.INSTANCE.map(first));
+		assertThat(this.objectMapper.readValue(lines[1], BookingDto.class)).isEqualTo(BookingMapper.INSTANCE.map(second));
+		verify(this.entityManager).detach(first);
+		verify(this.entityManager).detach(second);
+	}
+	
+	@Test
+	void export_Should_WriteNothing_When_EntitiesAreNotPresentInDb() throws Exception {
+		// given
+		when(this.bookingDao.streamAllBy()).thenReturn(Stream.empty());
+		final var outputStream = new ByteArrayOutputStream();
+		
+		// when
+		final var result = this.bookingExporter.export(outputStream);
+		
+		// then
+		assertThat(result).isZero();
+		assertThat(outputStream.size()).isZero();
+	}
+}
@@ -0,0 +1,80 @@
+package restaurantmanager.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static restaurantmanager.utils.BookingFixture.assertBooking;
+import static restaurantmanager.utils.BookingFixture.createModifyBookingDto;
+import static restaurantmanager.utils.BookingFixture.createModifyBookingDtoWithNulls;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Runs against a replica that has not received any booking yet: its connections resolve bookings to an empty table of
+ * their own schema, while every other table and the primary are shared with the other tests.
+ */
+@SpringBootTest(properties = {
+		"restaurantmanager.datasource.replica.jdbc-url=${spring.datasource.url}",
+		"restaurantmanager.datasource.replica.connection-init-sql=set search_path to " + BookingReplicaLagTestIT.LAGGING_SCHEMA + ", public"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BookingReplicaLagTestIT {
+	
+	static final String LAGGING_SCHEMA = "lagging_replica";
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private BookingDao bookingDao;
+	
+	@Autowired
+	private BookingService bookingService;
+	
+	@BeforeEach
+	void setUp() {
+		this.bookingDao.deleteAll();
+		this.jdbcTemplate.execute("create schema if not exists " + LAGGING_SCHEMA);
+		this.jdbcTemplate.execute("create table if not exists " + LAGGING_SCHEMA + ".bookings (like public.bookings)");
+	}
+	
+	@AfterEach
+	void tearDown() {
+		this.jdbcTemplate.execute("drop schema if exists " + LAGGING_SCHEMA + " cascade");
+	}
+	
+	@Test
+	void updateBooking_Should_UpdateEntity_When_ReplicaHasNotReceivedItYet() {
+		// given
+		final var addedBooking = this.bookingService.addBooking(createModifyBookingDto());
+		assertThat(this.bookingDao.findById(addedBooking.getId())).isNotPresent();
+		final var bookingToUpdate = createModifyBookingDto();
+		
+		// when
+		final var result = this.bookingService.updateBooking(addedBooking.getId(), bookingToUpdate);
+		
+		// then
+		assertBooking(result, bookingToUpdate);
+	}
+	
+	@Test
+	void patchBooking_Should_MoveEntity_When_ReplicaHasNotReceivedItYet() {
+		// given
+		final var addedBooking = this.bookingService.addBooking(createModifyBookingDto());
+		assertThat(this.bookingDao.findById(addedBooking.getId())).isNotPresent();
+		final var bookingToPatch = createModifyBookingDtoWithNulls();
+		bookingToPatch.setBookingTime(LocalTime.of(12, 0));
+		
+		// when
+		final var result = this.bookingService.patchBooking(addedBooking.getId(), bookingToPatch);
+		
+		// then
+		assertThat(result.getBookingTime()).isEqualTo(bookingToPatch.getBookingTime());
+		assertThat(result.getBoardId()).isEqualTo(addedBooking.getBoardId());
+	}
+}
@@ -1,10 +1,14 @@
 package restaurantmanager.booking;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.nCopies;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static restaurantmanager.utils.BookingFixture.assertBooking;
@@ -12,10 +16,17 @@ import static restaurantmanager.utils.BookingFixture.createBookingEntity;
 import static restaurantmanager.utils.BookingFixture.createBookingEntityFromModifyDto;
 import static restaurantmanager.utils.BookingFixture.createModifyBookingDto;
 import static restaurantmanager.utils.BookingFixture.createModifyBookingDtoWithNulls;
+import static restaurantmanager.utils.RandomUtilsFixture.createRandomString;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,13 +34,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
+import restaurantmanager.BadRequestException;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.ConflictException;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
+import restaurantmanager.board.AvailabilityEngine;
+import restaurantmanager.events.ChangeEvent;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
 	
 	private final BookingDao bookingDao = Mockito.mock(BookingDao.class);
+	private final AvailabilityEngine availabilityEngine = Mockito.mock(AvailabilityEngine.class);
+	private final BookingConflictGuard bookingConflictGuard = Mockito.spy(new BookingConflictGuard(this.bookingDao, 120, 16));
+	private final ApplicationEventPublisher applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+	private final CacheInvalidationBus cacheInvalidationBus = Mockito.mock(CacheInvalidationBus.class);
 	
 	@InjectMocks
 	private BookingService bookingService;
@@ -42,7 +66,7 @@ class BookingServiceTest {
 	@Test
 	void getAllBookings_Should_ReturnEmptyList_When_EntitiesAreNotPresentInDb() {
 		// given
-		when(this.bookingDao.findAll()).thenReturn(emptyList());
+		when(this.bookingDao.findAllBy(any(Pageable.class))).thenReturn(emptyList());
 		
 		// when
 		final var result = this.bookingService.getAllBookings();
@@ -58,7 +82,7 @@ class BookingServiceTest {
 										  createBookingEntity(2L),
 										  createBookingEntity(3L));
 		
-		when(this.bookingDao.findAll()).thenReturn(bookingsToAdd);
+		when(this.bookingDao.findAllBy(any(Pageable.class))).thenReturn(bookingsToAdd);
 		
 		// when
 		final var result = this.bookingService.getAllBookings();
@@ -83,6 +107,118 @@ class BookingServiceTest {
 				.containsAll(bookingsToAdd.stream().map(Booking::getDescription).collect(toUnmodifiableList()));
 	}
 	
+	@Test
+	void getAllBookings_Should_ThrowBadRequestException_When_TooManyEntitiesArePresentInDb() {
+		// given
+		when(this.bookingDao.findAllBy(any(Pageable.class)))
+				.thenReturn(nCopies(KeysetPagination.MAX_UNPAGED_ROWS + 1, createBookingEntity(1L)));
+		
+		// when
+		final var result = catchThrowable(() -> this.bookingService.getAllBookings());
+		
+		// then
+		assertThat(result).isInstanceOf(BadRequestException.class);
+	}
+	
+	@Test
+	void getBookingsPage_Should_ReturnNextCursor_When_MoreEntitiesArePresentInDb() {
+		// given
+		final var from = LocalDate.now();
+		final var to = from.plusDays(30L);
+		when(this.bookingDao.findPageAfter(from, LocalTime.MIN, 0L, to, 3))
+				.thenReturn(List.of(createBookingEntity(1L), createBookingEntity(2L), createBookingEntity(3L)));
+		
+		// when
+		final var result = this.bookingService.getBookingsPage(null, 2, from, to);
+		
+		// then
+		assertThat(result.getItems()).extracting(BookingDto::getId).containsExactly(1L, 2L);
+		assertThat(result.getNextCursor()).isEqualTo(BookingCursor.encode(createBookingEntity(2L)));
+	}
+	
+	@Test
+	void getBookingsPage_Should_ContinueAfterCursor_When_LastPageIsReached() {
+		// given
+		final var last = createBookingEntity(2L);
+		when(this.bookingDao.findPageAfter(eq(last.getBookingDate()), eq(last.getBookingTime()), eq(2L), any(), eq(3)))
+				.thenReturn(List.of(createBookingEntity(3L)));
+		
+		// when
+		final var result = this.bookingService.getBookingsPage(BookingCursor.encode(last), 2, null, null);
+		
+		// then
+		assertThat(result.getItems()).extracting(BookingDto::getId).containsExactly(3L);
+		assertThat(result.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void getBookingsByBoardPage_Should_ThrowBadRequestException_When_CursorIsNotValid() {
+		// when
+		final var result = catchThrowable(() -> this.bookingService.getBookingsByBoardPage(1L, KeysetPagination.encodeCursor(2L), 2, null, null));
+		
+		// then
+		assertThat(result).isInstanceOf(BadRequestException.class);
+		verify(this.bookingDao, never()).findPageByBoardIdAfter(any(), any(), any(), any(), any(), anyInt());
+	}
+	
+	@Test
+	void getBookingsBetween_Should_ReturnResultList_When_RangeIsValid() {
+		// given
+		final var from = LocalDate.now();
+		final var to = from.plusDays(1L);
+		when(this.bookingDao.findAllByBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(eq(from), eq(to), any(Pageable.class)))
+				.thenReturn(List.of(createBookingEntity(1L), createBookingEntity(2L)));
+		
+		// when
+		final var result = this.bookingService.getBookingsBetween(from, to);
+		
+		// then
+		assertThat(result).extracting(BookingDto::getId).containsExactly(1L, 2L);
+	}
+	
+	@Test
+	void getBookingsByBoardBetween_Should_ThrowBadRequestException_When_FromIsAfterTo() {
+		// given
+		final var from = LocalDate.now();
+		final var to = from.minusDays(1L);
+		
+		// when
+		final var result = catchThrowable(() -> this.bookingService.getBookingsByBoardBetween(1L, from, to));
+		
+		// then
+		assertThat(result).isInstanceOf(BadRequestException.class);
+		verify(this.bookingDao, never()).findAllByBoardIdAndBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(any(), any(), any(), any());
+	}
+	
+	@Test
+	void getBookingsByEmployeeBetween_Should_ThrowBadRequestException_When_RangeIsTooLong() {
+		// given
+		final var from = LocalDate.now();
+		final var to = from.plusYears(2L);
+		
+		// when
+		final var result = catchThrowable(() -> this.bookingService.getBookingsByEmployeeBetween(1L, from, to));
+		
+		// then
+		assertThat(result).isInstanceOf(BadRequestException.class);
+		verify(this.bookingDao, never()).findAllByEmployeeIdAndBookingDateBetweenOrderByBookingDateAscBookingTimeAsc(any(), any(), any(), any());
+	}
+	
+	@Test
+	void getBookingsByIds_Should_ReturnResultInRequestOrder_When_SomeEntitiesNotExist() {
+		// given
+		final var first = createBookingEntity(1L);
+		final var third = createBookingEntity(3L);
+		when(this.bookingDao.findAllById(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+		
+		// when
+		final var result = this.bookingService.getBookingsByIds(List.of(3L, 2L, 1L, 3L));
+		
+		// then
+		assertThat(result.getItems()).containsExactly(BookingMapper.INSTANCE.map(third), BookingMapper.INSTANCE.map(first));
+		assertThat(result.getMissingIds()).containsExactly(2L);
+	}
+	
 	@Test
 	void getBookingById_Should_ReturnResult_When_EntityExists() {
 		// given
@@ -128,19 +264,120 @@ class BookingServiceTest {
 		assertBooking(result, bookingToAdd);
 	}
 	
+	@Test
+	void addBooking_Should_ThrowConflictException_When_BoardIsAlreadyBooked() {
+		// given
+		final var bookingToAdd = createModifyBookingDto();
+		when(this.bookingDao.existsOverlappingBooking(eq(bookingToAdd.getBoardId()), eq(bookingToAdd.getBookingDate()),
+													  any(), any(), eq(0L))).thenReturn(true);
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.addBooking(bookingToAdd));
+		
+		// then
+		assertThat(throwable).isInstanceOf(ConflictException.class)
+				.hasMessage("Board with id=" + bookingToAdd.getBoardId() + " is already booked at given time");
+		verify(this.bookingDao, never()).save(any());
+	}
+	
+	@Test
+	void addBooking_Should_ThrowConflictException_When_OverlappingBookingIsStoredConcurrently() {
+		// given
+		final var bookingToAdd = createModifyBookingDto();
+		final var violation = new SQLException("ERROR: conflicting key value violates exclusion constraint \""
+				+ BookingConflictGuard.BOARD_OVERLAP_CONSTRAINT + "\"");
+		when(this.bookingDao.save(any())).thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.addBooking(bookingToAdd));
+		
+		// then
+		assertThat(throwable).isInstanceOf(ConflictException.class)
+				.hasMessage("Board with id=" + bookingToAdd.getBoardId() + " is already booked at given time");
+	}
+	
+	@Test
+	void addBooking_Should_ThrowConflictException_When_BookingOfPreviousDayRunsPastMidnight() {
+		// given
+		final var bookingToAdd = createModifyBookingDto().toBuilder()
+				.bookingTime(LocalTime.of(0, 30))
+				.build();
+		when(this.bookingDao.existsOverlappingBooking(eq(bookingToAdd.getBoardId()), eq(bookingToAdd.getBookingDate().minusDays(1L)),
+													  any(), any(), eq(0L))).thenReturn(true);
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.addBooking(bookingToAdd));
+		
+		// then
+		assertThat(throwable).isInstanceOf(ConflictException.class);
+		verify(this.bookingDao).existsOverlappingBooking(bookingToAdd.getBoardId(), bookingToAdd.getBookingDate().minusDays(1L),
+														 LocalTime.of(22, 30, 1), LocalTime.MAX, 0L);
+		verify(this.bookingDao, never()).save(any());
+	}
+	
+	@Test
+	void addBookings_Should_SaveAllEntities() {
+		// given
+		final var firstBookingToAdd = createModifyBookingDto();
+		final var secondBookingToAdd = createModifyBookingDto();
+		
+		// when
+		when(this.bookingDao.saveAll(List.of(BookingMapper.INSTANCE.mapFromModify(firstBookingToAdd), BookingMapper.INSTANCE.mapFromModify(secondBookingToAdd))))
+				.thenReturn(List.of(createBookingEntityFromModifyDto(1L, firstBookingToAdd), createBookingEntityFromModifyDto(2L, secondBookingToAdd)));
+		final var result = this.bookingService.addBookings(List.of(firstBookingToAdd, secondBookingToAdd));
+		
+		// then
+		assertThat(result).extracting(BookingDto::getId).containsExactly(1L, 2L);
+		assertBooking(result.get(0), firstBookingToAdd);
+		assertBooking(result.get(1), secondBookingToAdd);
+	}
+	
+	@Test
+	void addBookings_Should_ThrowConflictException_When_BookingsOverlapEachOther() {
+		// given
+		final var firstBookingToAdd = createModifyBookingDto();
+		final var secondBookingToAdd = firstBookingToAdd.toBuilder()
+				.bookingTime(firstBookingToAdd.getBookingTime().plusHours(1L))
+				.build();
+		
+		// when
+		final var result = catchThrowable(() -> this.bookingService.addBookings(List.of(firstBookingToAdd, secondBookingToAdd)));
+		
+		// then
+		assertThat(result).isInstanceOf(ConflictException.class);
+		verify(this.bookingDao, never()).saveAll(any());
+	}
+	
+	@Test
+	void addBookings_Should_ThrowConflictException_When_BookingsOverlapAcrossMidnight() {
+		// given
+		final var firstBookingToAdd = createModifyBookingDto().toBuilder()
+				.bookingTime(LocalTime.of(23, 30))
+				.build();
+		final var secondBookingToAdd = firstBookingToAdd.toBuilder()
+				.bookingDate(firstBookingToAdd.getBookingDate().plusDays(1L))
+				.bookingTime(LocalTime.of(0, 30))
+				.build();
+		
+		// when
+		final var result = catchThrowable(() -> this.bookingService.addBookings(List.of(secondBookingToAdd, firstBookingToAdd)));
+		
+		// then
+		assertThat(result).isInstanceOf(ConflictException.class);
+		verify(this.bookingDao, never()).saveAll(any());
+	}
+	
 	@Test
 	void updateBooking_Should_UpdateBooking() {
 		// given
 		final var id = 1L;
-		final var existingBooking = createBookingEntity(id);
-		when(this.bookingDao.findById(id)).thenReturn(Optional.of(existingBooking));
-		
 		final var bookingToUpdate = createModifyBookingDto();
 		
 		// when
 		final var entity = createBookingEntityFromModifyDto(id, bookingToUpdate);
 		
-		when(this.bookingDao.save(entity)).thenReturn(entity);
+		when(this.bookingDao.existsOnPrimaryById(id)).thenReturn(true);
+		when(this.bookingDao.update(entity)).thenReturn(1);
 		final var result = this.bookingService.updateBooking(id, bookingToUpdate);
 		
 		// then
@@ -148,11 +385,29 @@ class BookingServiceTest {
 		assertBooking(result, bookingToUpdate);
 	}
 	
+	@Test
+	void updateBooking_Should_ThrowConflictException_When_BoardIsAlreadyBooked() {
+		// given
+		final var id = 1L;
+		final var bookingToUpdate = createModifyBookingDto();
+		when(this.bookingDao.existsOnPrimaryById(id)).thenReturn(true);
+		when(this.bookingDao.existsOverlappingBooking(eq(bookingToUpdate.getBoardId()), eq(bookingToUpdate.getBookingDate()),
+													  any(), any(), eq(id))).thenReturn(true);
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.updateBooking(id, bookingToUpdate));
+		
+		// then
+		assertThat(throwable).isInstanceOf(ConflictException.class);
+		verify(this.bookingDao, never()).update(any());
+	}
+	
 	@Test
 	void updateBooking_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.bookingDao.findById(id)).thenReturn(Optional.empty());
+		when(this.bookingDao.existsOnPrimaryById(id)).thenReturn(true);
+		when(this.bookingDao.update(any())).thenReturn(0);
 		
 		// when
 		final var throwable = catchThrowable(() -> this.bookingService.updateBooking(id, createModifyBookingDtoWithNulls()));
@@ -162,25 +417,106 @@ class BookingServiceTest {
 				.hasMessage("Booking with id=" + id + " not found");
 	}
 	
+	@Test
+	void updateBooking_Should_ThrowNotFoundException_When_EntityNotExistAndBoardIsAlreadyBooked() {
+		// given
+		final var id = new Random().nextLong();
+		when(this.bookingDao.existsOnPrimaryById(id)).thenReturn(false);
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.updateBooking(id, createModifyBookingDto()));
+		
+		// then
+		assertThat(throwable).isInstanceOf(NotFoundException.class)
+				.hasMessage("Booking with id=" + id + " not found");
+		verify(this.bookingDao, never()).existsOverlappingBooking(any(), any(), any(), any(), any());
+		verify(this.bookingDao, never()).update(any());
+	}
+	
+	@Test
+	void patchBooking_Should_ChangeOnlyGivenFields() {
+		// given
+		final var id = 1L;
+		final var existingBooking = createBookingEntity(id);
+		final var expectedBooking = BookingMapper.INSTANCE.map(existingBooking).toBuilder();
+		when(this.bookingDao.patchById(eq(id), any())).thenAnswer(invocation -> {
+			final Consumer<Booking> patch = invocation.getArgument(1);
+			patch.accept(existingBooking);
+			return Optional.of(existingBooking);
+		});
+		
+		final var bookingToPatch = createModifyBookingDtoWithNulls();
+		bookingToPatch.setDescription(createRandomString());
+		
+		// when
+		final var result = this.bookingService.patchBooking(id, bookingToPatch);
+		
+		// then
+		assertThat(result).isEqualTo(expectedBooking.description(bookingToPatch.getDescription()).build());
+	}
+	
+	@Test
+	void patchBooking_Should_CheckSlotAgain_When_BookingWasMovedConcurrently() {
+		// given
+		final var id = 1L;
+		final var storedBooking = createBookingEntity(id);
+		final var movedBooking = createBookingEntity(id);
+		when(this.bookingDao.findOnPrimaryById(id)).thenReturn(Optional.of(storedBooking), Optional.of(movedBooking));
+		when(this.bookingDao.patchById(eq(id), any())).thenAnswer(invocation -> {
+			final Consumer<Booking> patch = invocation.getArgument(1);
+			patch.accept(movedBooking);
+			return Optional.of(movedBooking);
+		});
+		
+		final var bookingToPatch = createModifyBookingDtoWithNulls();
+		bookingToPatch.setBookingTime(LocalTime.of(19, 0));
+		
+		// when
+		final var result = this.bookingService.patchBooking(id, bookingToPatch);
+		
+		// then
+		assertThat(result.getBoardId()).isEqualTo(movedBooking.getBoardId());
+		assertThat(result.getBookingTime()).isEqualTo(bookingToPatch.getBookingTime());
+		verify(this.bookingDao).existsOverlappingBooking(eq(storedBooking.getBoardId()), any(), any(), any(), eq(id));
+		verify(this.bookingDao).existsOverlappingBooking(eq(movedBooking.getBoardId()), any(), any(), any(), eq(id));
+	}
+	
+	@Test
+	void patchBooking_Should_ThrowNotFoundException_When_EntityNotExist() {
+		// given
+		final var id = new Random().nextLong();
+		when(this.bookingDao.patchById(eq(id), any())).thenReturn(Optional.empty());
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.patchBooking(id, createModifyBookingDtoWithNulls()));
+		
+		// then
+		assertThat(throwable).isInstanceOf(NotFoundException.class)
+				.hasMessage("Booking with id=" + id + " not found");
+	}
+	
 	@Test
 	void deleteBookingById_Should_RemoveEntity_When_EntityExists() {
 		// given
 		final var id = 1L;
 		final var booking = createBookingEntity(id);
-		when(this.bookingDao.findById(id)).thenReturn(Optional.of(booking));
+		when(this.bookingDao.deleteReturningById(id)).thenReturn(Optional.of(booking));
 		
 		// when
-		this.bookingService.deleteBookingById(id);
+		final var result = this.bookingService.deleteBookingById(id);
 		
 		//then
-		verify(this.bookingDao, times(1)).deleteById(id);
+		assertThat(result).isEqualTo(BookingMapper.INSTANCE.map(booking));
+		verify(this.bookingDao, never()).findById(id);
+		verify(this.applicationEventPublisher).publishEvent(ChangeEvent.removed(BookingService.CHANGE_EVENT, result));
+		verify(this.cacheInvalidationBus).publish(BookingService.CACHED_COLLECTION, id);
 	}
 	
 	@Test
 	void deleteBookingById_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.bookingDao.findById(id)).thenReturn(Optional.empty());
+		when(this.bookingDao.deleteReturningById(id)).thenReturn(Optional.empty());
 		
 		// when
 		final var throwable = catchThrowable(() -> this.bookingService.deleteBookingById(id));
@@ -190,4 +526,32 @@ class BookingServiceTest {
 				.hasMessage("Booking with id=" + id + " not found");
 	}
 	
+	@Test
+	void deleteBookingsByIds_Should_ReturnRemovedEntities_When_SomeEntitiesExist() {
+		// given
+		final var ids = List.of(1L, 2L, 3L);
+		when(this.bookingDao.deleteReturningByIdIn(Set.copyOf(ids))).thenReturn(List.of(createBookingEntity(1L), createBookingEntity(3L)));
+		
+		// when
+		final var result = this.bookingService.deleteBookingsByIds(ids);
+		
+		// then
+		assertThat(result).extracting(BookingDto::getId).containsExactlyInAnyOrder(1L, 3L);
+		verify(this.availabilityEngine).bookingRemoved(1L);
+		verify(this.availabilityEngine).bookingRemoved(3L);
+	}
+	
+	@Test
+	void deleteBookingsByIds_Should_ThrowBadRequestException_When_TooManyIdsAreGiven() {
+		// given
+		final var ids = LongStream.rangeClosed(1L, 1001L).boxed().collect(toUnmodifiableList());
+		
+		// when
+		final var throwable = catchThrowable(() -> this.bookingService.deleteBookingsByIds(ids));
+		
+		// then
+		assertThat(throwable).isInstanceOf(BadRequestException.class);
+		verify(this.bookingDao, never()).deleteReturningByIdIn(any());
+	}
+	
 }
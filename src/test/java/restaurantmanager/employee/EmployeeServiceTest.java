@@ -4,7 +4,9 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static restaurantmanager.utils.EmployeeFixture.assertEmployee;
@@ -12,10 +14,12 @@ import static restaurantmanager.utils.EmployeeFixture.createEmployeeEntity;
 import static restaurantmanager.utils.EmployeeFixture.createEmployeeEntityFromModifyDto;
 import static restaurantmanager.utils.EmployeeFixture.createModifyEmployeeDto;
 import static restaurantmanager.utils.EmployeeFixture.createModifyEmployeeDtoWithNulls;
+import static restaurantmanager.utils.RandomUtilsFixture.createRandomString;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,13 +27,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceTest {
 	
 	private final EmployeeDao employeeDao = Mockito.mock(EmployeeDao.class);
+	private final EntityCacheEvictor entityCacheEvictor = Mockito.mock(EntityCacheEvictor.class);
+	private final CacheInvalidationBus cacheInvalidationBus = Mockito.mock(CacheInvalidationBus.class);
 	
 	@InjectMocks
 	private EmployeeService employeeService;
@@ -42,7 +52,7 @@ class EmployeeServiceTest {
 	@Test
 	void getAllEmployees_Should_ReturnEmptyList_When_EntitiesAreNotPresentInDb() {
 		// given
-		when(this.employeeDao.findAll()).thenReturn(emptyList());
+		when(this.employeeDao.findAllBy(any(Pageable.class))).thenReturn(emptyList());
 		
 		// when
 		final var result = this.employeeService.getAllEmployees();
@@ -58,7 +68,7 @@ class EmployeeServiceTest {
 										   createEmployeeEntity(2L),
 										   createEmployeeEntity(3L));
 		
-		when(this.employeeDao.findAll()).thenReturn(employeesToAdd);
+		when(this.employeeDao.findAllBy(any(Pageable.class))).thenReturn(employeesToAdd);
 		
 		// when
 		final var result = this.employeeService.getAllEmployees();
@@ -83,6 +93,49 @@ class EmployeeServiceTest {
 				.containsAll(employeesToAdd.stream().map(Employee::getStartDate).collect(toUnmodifiableList()));
 	}
 	
+	@Test
+	void getEmployeesPage_Should_ReturnNextCursor_When_MoreEntitiesArePresentInDb() {
+		// given
+		when(this.employeeDao.findAllByIdGreaterThan(eq(0L), any(Pageable.class)))
+				.thenReturn(List.of(createEmployeeEntity(1L), createEmployeeEntity(2L), createEmployeeEntity(3L)));
+		
+		// when
+		final var result = this.employeeService.getEmployeesPage(null, 2);
+		
+		// then
+		assertThat(result.getItems()).extracting(EmployeeDto::getId).containsExactly(1L, 2L);
+		assertThat(KeysetPagination.decodeCursor(result.getNextCursor())).isEqualTo(2L);
+	}
+	
+	@Test
+	void getEmployeesPage_Should_ReturnNoCursor_When_LastPageIsReached() {
+		// given
+		when(this.employeeDao.findAllByIdGreaterThan(eq(2L), any(Pageable.class)))
+				.thenReturn(List.of(createEmployeeEntity(3L)));
+		
+		// when
+		final var result = this.employeeService.getEmployeesPage(KeysetPagination.encodeCursor(2L), 2);
+		
+		// then
+		assertThat(result.getItems()).extracting(EmployeeDto::getId).containsExactly(3L);
+		assertThat(result.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void getEmployeesByIds_Should_ReturnResultInRequestOrder_When_SomeEntitiesNotExist() {
+		// given
+		final var first = createEmployeeEntity(1L);
+		final var third = createEmployeeEntity(3L);
+		when(this.employeeDao.findAllById(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+		
+		// when
+		final var result = this.employeeService.getEmployeesByIds(List.of(3L, 2L, 1L, 3L));
+		
+		// then
+		assertThat(result.getItems()).containsExactly(EmployeeMapper.INSTANCE.map(third), EmployeeMapper.INSTANCE.map(first));
+		assertThat(result.getMissingIds()).containsExactly(2L);
+	}
+	
 	@Test
 	void getEmployeeById_Should_ReturnResult_When_EntityExists() {
 		// given
@@ -128,19 +181,33 @@ class EmployeeServiceTest {
 		assertEmployee(result, employeeToAdd);
 	}
 	
+	@Test
+	void addEmployees_Should_SaveAllEntities() {
+		// given
+		final var firstEmployeeToAdd = createModifyEmployeeDto();
+		final var secondEmployeeToAdd = createModifyEmployeeDto();
+		
+		// when
+		when(this.employeeDao.saveAll(List.of(EmployeeMapper.INSTANCE.mapFromModify(firstEmployeeToAdd), EmployeeMapper.INSTANCE.mapFromModify(secondEmployeeToAdd))))
+				.thenReturn(List.of(createEmployeeEntityFromModifyDto(1L, firstEmployeeToAdd), createEmployeeEntityFromModifyDto(2L, secondEmployeeToAdd)));
+		final var result = this.employeeService.addEmployees(List.of(firstEmployeeToAdd, secondEmployeeToAdd));
+		
+		// then
+		assertThat(result).extracting(EmployeeDto::getId).containsExactly(1L, 2L);
+		assertEmployee(result.get(0), firstEmployeeToAdd);
+		assertEmployee(result.get(1), secondEmployeeToAdd);
+	}
+	
 	@Test
 	void updateEmployee_Should_UpdateEmployee() {
 		// given
 		final var id = 1L;
-		final var existingEmployee = createEmployeeEntity(id);
-		when(this.employeeDao.findById(id)).thenReturn(Optional.of(existingEmployee));
-		
 		final var employeeToUpdate = createModifyEmployeeDto();
 		
 		// when
 		final var entity = createEmployeeEntityFromModifyDto(id, employeeToUpdate);
 		
-		when(this.employeeDao.save(entity)).thenReturn(entity);
+		when(this.employeeDao.update(entity)).thenReturn(1);
 		final var result = this.employeeService.updateEmployee(id, employeeToUpdate);
 		
 		// then
@@ -152,7 +219,7 @@ class EmployeeServiceTest {
 	void updateEmployee_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.employeeDao.findById(id)).thenReturn(Optional.empty());
+		when(this.employeeDao.update(any())).thenReturn(0);
 		
 		// when
 		final var throwable = catchThrowable(() -> this.employeeService.updateEmployee(id, createModifyEmployeeDtoWithNulls()));
@@ -162,25 +229,64 @@ class EmployeeServiceTest {
 				.hasMessage("Employee with id=" + id + " not found");
 	}
 	
+	@Test
+	void patchEmployee_Should_ChangeOnlyGivenFields() {
+		// given
+		final var id = 1L;
+		final var existingEmployee = createEmployeeEntity(id);
+		final var expectedEmployee = EmployeeMapper.INSTANCE.map(existingEmployee).toBuilder();
+		when(this.employeeDao.patchById(eq(id), any())).thenAnswer(invocation -> {
+			final Consumer<Employee> patch = invocation.getArgument(1);
+			patch.accept(existingEmployee);
+			return Optional.of(existingEmployee);
+		});
+		
+		final var employeeToPatch = createModifyEmployeeDtoWithNulls();
+		employeeToPatch.setEmail(createRandomString());
+		
+		// when
+		final var result = this.employeeService.patchEmployee(id, employeeToPatch);
+		
+		// then
+		assertThat(result).isEqualTo(expectedEmployee.email(employeeToPatch.getEmail()).build());
+	}
+	
+	@Test
+	void patchEmployee_Should_ThrowNotFoundException_When_EntityNotExist() {
+		// given
+		final var id = new Random().nextLong();
+		when(this.employeeDao.patchById(eq(id), any())).thenReturn(Optional.empty());
+		
+		// when
+		final var throwable = catchThrowable(() -> this.employeeService.patchEmployee(id, createModifyEmployeeDtoWithNulls()));
+		
+		// then
+		assertThat(throwable).isInstanceOf(NotFoundException.class)
+				.hasMessage("Employee with id=" + id + " not found");
+	}
+	
 	@Test
 	void deleteEmployeeById_Should_RemoveEntity_When_EntityExists() {
 		// given
 		final var id = 1L;
 		final var employee = createEmployeeEntity(id);
-		when(this.employeeDao.findById(id)).thenReturn(Optional.of(employee));
+		when(this.employeeDao.deleteReturningById(id)).thenReturn(Optional.of(employee));
 		
 		// when
-		this.employeeService.deleteEmployeeById(id);
+		final var result = this.employeeService.deleteEmployeeById(id);
 		
 		//then
-		verify(this.employeeDao, times(1)).deleteById(id);
+		assertThat(result).isEqualTo(EmployeeMapper.INSTANCE.map(employee));
+		verify(this.employeeDao, never()).findById(id);
+		verify(this.entityCacheEvictor).evict(Employee.class, id);
+		verify(this.cacheInvalidationBus).publish(EmployeeService.CACHED_COLLECTION, id);
 	}
 	
 	@Test
 	void deleteEmployeeById_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.employeeDao.findById(id)).thenReturn(Optional.empty());
+		when(this.employeeDao.deleteReturningById(id)).thenReturn(Optional.empty());
 		
 		// when
 		final var throwable = catchThrowable(() -> this.employeeService.deleteEmployeeById(id));
@@ -0,0 +1,136 @@
+package restaurantmanager.events;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ChangeEventBroadcasterTest {
+	
+	private static final String BOARD = "board";
+	
+	private final ChangeEventBroadcaster changeEventBroadcaster =
+			new ChangeEventBroadcaster(Jackson2ObjectMapperBuilder.json().build(), 10, 4, 60L, 60L, 1);
+	
+	@AfterEach
+	void tearDown() {
+		this.changeEventBroadcaster.close();
+	}
+	
+	@Test
+	void publish_Should_SendEventToSubscriber_When_Subscribed() throws Exception {
+		// given
+		final var emitter = new RecordingEmitter();
+		this.changeEventBroadcaster.subscribe(null, emitter);
+		
+		// when
+		this.changeEventBroadcaster.publish(ChangeEvent.saved(BOARD, Map.of("id", 1L)));
+		
+		// then
+		final var sent = emitter.next();
+		assertThat(sent).contains("event:" + BOARD).contains("\"action\":\"SAVED\"").contains("\"id\":1");
+	}
+	
+	@Test
+	void subscribe_Should_ReplayMissedEvents_When_LastEventIdIsKnown() throws Exception {
+		// given
+		final var connected = new RecordingEmitter();
+		this.changeEventBroadcaster.subscribe(null, connected);
+		this.changeEventBroadcaster.publish(ChangeEvent.saved(BOARD, Map.of("id", 1L)));
+		this.changeEventBroadcaster.publish(ChangeEvent.saved(BOARD, Map.of("id", 2L)));
+		this.changeEventBroadcaster.publish(ChangeEvent.removed(BOARD, Map.of("id", 3L)));
+		final var lastEventId = idOf(connected.next());
+		final var reconnected = new RecordingEmitter();
+		
+		// when
+		this.changeEventBroadcaster.subscribe(lastEventId, reconnected);
+		
+		// then
+		assertThat(reconnected.next()).contains("\"id\":2");
+		assertThat(reconnected.next()).contains("\"action\":\"REMOVED\"").contains("\"id\":3");
+		assertThat(reconnected.next()).isNull();
+	}
+	
+	@Test
+	void subscribe_Should_SendResetEvent_When_LastEventIdIsUnknown() throws Exception {
+		// given
+		this.changeEventBroadcaster.publish(ChangeEvent.saved(BOARD, Map.of("id", 1L)));
+		final var emitter = new RecordingEmitter();
+		
+		// when
+		this.changeEventBroadcaster.subscribe("previous-instance-42", emitter);
+		
+		// then
+		assertThat(emitter.next()).contains("event:" + ChangeEventBroadcaster.RESET_EVENT);
+	}
+	
+	@Test
+	void publish_Should_DisconnectSubscriber_When_BufferIsFull() throws Exception {
+		// given
+		final var emitter = new RecordingEmitter(new CountDownLatch(1));
+		this.changeEventBroadcaster.subscribe(null, emitter);
+		
+		// when
+		for (var i = 1L; i <= 6L; i++) {
+			this.changeEventBroadcaster.publish(ChangeEvent.saved(BOARD, Map.of("id", i)));
+		}
+		
+		// then
+		assertThat(this.changeEventBroadcaster.getSubscriberCount()).isZero();
+		assertThat(this.changeEventBroadcaster.getSlowConsumerDisconnections()).isEqualTo(1L);
+		emitter.release();
+	}
+	
+	private static String idOf(final String sent) {
+		return sent.lines()
+				.filter(line -> line.startsWith("id:"))
+				.map(line -> line.substring("id:".length()))
+				.findFirst()
+				.orElseThrow();
+	}
+	
+	private static final class RecordingEmitter extends SseEmitter {
+		
+		private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		private final CountDownLatch blocked;
+		
+		private RecordingEmitter() {
+			this(new CountDownLatch(0));
+		}
+		
+		private RecordingEmitter(final CountDownLatch blocked) {
+			this.blocked = blocked;
+		}
+		
+		@Override
+		public void send(final SseEventBuilder builder) {
+			try {
+				// a blocked send stands for a client that does not read its stream
+				this.blocked.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			this.sent.add(builder.build()
+								  .stream()
+								  .map(data -> data.getData().toString())
+								  .collect(joining()));
+		}
+		
+		private String next() throws InterruptedException {
+			return this.sent.poll(1, TimeUnit.SECONDS);
+		}
+		
+		private void release() {
+			this.blocked.countDown();
+		}
+	}
+}
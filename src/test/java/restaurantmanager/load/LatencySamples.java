@@ -0,0 +1,54 @@
+package restaurantmanager.load;
+
+import java.util.Arrays;
+
+final class LatencySamples {
+	
+	private long[] latencies = new long[1024];
+	private int size;
+	private long rejected;
+	private long failed;
+	
+	void record(final long latencyNanos) {
+		if (this.size == this.latencies.length) {
+			this.latencies = Arrays.copyOf(this.latencies, this.size * 2);
+		}
+		this.latencies[this.size++] = latencyNanos;
+	}
+	
+	void reject() {
+		this.rejected++;
+	}
+	
+	void fail() {
+		this.failed++;
+	}
+	
+	void addAll(final LatencySamples other) {
+		for (var i = 0; i < other.size; i++) {
+			this.record(other.latencies[i]);
+		}
+		this.rejected += other.rejected;
+		this.failed += other.failed;
+	}
+	
+	int getCount() {
+		return this.size;
+	}
+	
+	long getRejected() {
+		return this.rejected;
+	}
+	
+	long getFailed() {
+		return this.failed;
+	}
+	
+	long[] percentiles(final double... quantiles) {
+		final var sorted = Arrays.copyOf(this.latencies, this.size);
+		Arrays.sort(sorted);
+		return Arrays.stream(quantiles)
+				.mapToLong(quantile -> sorted.length == 0 ? 0L : sorted[Math.max((int) Math.ceil(quantile * sorted.length) - 1, 0)])
+				.toArray();
+	}
+}
@@ -0,0 +1,263 @@
+package restaurantmanager.load;
+
+import static restaurantmanager.utils.BoardFixture.createModifyBoardDto;
+import static restaurantmanager.utils.BookingFixture.createModifyBookingDto;
+import static restaurantmanager.utils.ProductFixture.createModifyProductDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.core.env.Environment;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restaurantmanager.RestaurantManagerApplication;
+import restaurantmanager.board.BoardDto;
+import restaurantmanager.board.ModifyBoardDto;
+import restaurantmanager.booking.ModifyBookingDto;
+import restaurantmanager.product.ModifyProductDto;
+
+public final class LoadHarness {
+	
+	private static final int SEED_CHUNK_SIZE = 500;
+	private static final int HISTORICAL_SLOTS_PER_DAY = 4;
+	private static final String[] CATEGORIES = {"starters", "soups", "mains", "pasta", "pizza", "desserts", "drinks", "wine"};
+	
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5L))
+			.build();
+	private final URI baseUri;
+	private final ObjectMapper objectMapper;
+	private final Environment environment;
+	private final List<Long> boardIds = new ArrayList<>();
+	
+	private LoadHarness(final URI baseUri, final ObjectMapper objectMapper, final Environment environment) {
+		this.baseUri = baseUri;
+		this.objectMapper = objectMapper;
+		this.environment = environment;
+	}
+	
+	public static void main(final String[] args) throws Exception {
+		final var context = new SpringApplicationBuilder(RestaurantManagerApplication.class)
+				.profiles("load")
+				.run(args);
+		try {
+			final var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			final var harness = new LoadHarness(URI.create("http://localhost:" + port),
+												context.getBean(ObjectMapper.class),
+												context.getEnvironment());
+			harness.seed();
+			harness.printReport(harness.drive());
+		} finally {
+			SpringApplication.exit(context);
+		}
+	}
+	
+	private void seed() throws IOException, InterruptedException {
+		final var products = this.setting("load.seed.products", 5000);
+		for (var seeded = 0; seeded < products; seeded += SEED_CHUNK_SIZE) {
+			final var chunk = new ArrayList<ModifyProductDto>();
+			for (var i = seeded; i < Math.min(seeded + SEED_CHUNK_SIZE, products); i++) {
+				final var product = createModifyProductDto();
+				product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+				chunk.add(product);
+			}
+			this.post("/products/bulk", chunk);
+		}
+		
+		final var boards = new ArrayList<ModifyBoardDto>();
+		final var boardCount = this.setting("load.seed.boards", 60);
+		for (var i = 0; i < boardCount; i++) {
+			boards.add(createModifyBoardDto());
+		}
+		final var savedBoards = this.objectMapper.readValue(this.post("/boards/bulk", boards).body(),
+															new TypeReference<List<BoardDto>>() {
+															});
+		savedBoards.forEach(board -> this.boardIds.add(board.getId()));
+		
+		final var bookings = this.setting("load.seed.bookings", 20000);
+		for (var seeded = 0; seeded < bookings; seeded += SEED_CHUNK_SIZE) {
+			final var chunk = new ArrayList<ModifyBookingDto>();
+			for (var i = seeded; i < Math.min(seeded + SEED_CHUNK_SIZE, bookings); i++) {
+				chunk.add(this.createHistoricalBooking(i));
+			}
+			this.post("/bookings/bulk", chunk);
+		}
+		System.out.printf("Seeded products=%d boards=%d bookings=%d%n", products, this.boardIds.size(), bookings);
+	}
+	
+	private Map<String, LatencySamples> drive() throws InterruptedException {
+		final var threads = this.setting("load.threads", 16);
+		final var readRatio = Double.parseDouble(this.environment.getProperty("load.read-ratio", "0.9"));
+		final var warmupNanos = TimeUnit.SECONDS.toNanos(this.setting("load.warmup-seconds", 10));
+		final var durationNanos = TimeUnit.SECONDS.toNanos(this.setting("load.duration-seconds", 60));
+		
+		final var start = System.nanoTime();
+		final var measureFrom = start + warmupNanos;
+		final var deadline = measureFrom + durationNanos;
+		final var workers = new ArrayList<Callable<Map<String, LatencySamples>>>();
+		for (var i = 0; i < threads; i++) {
+			workers.add(() -> this.work(readRatio, measureFrom, deadline));
+		}
+		
+		final var executor = Executors.newFixedThreadPool(threads);
+		final var merged = new LinkedHashMap<String, LatencySamples>();
+		try {
+			for (final var result : executor.invokeAll(workers)) {
+				result.get().forEach((endpoint, samples) -> merged.computeIfAbsent(endpoint, key -> new LatencySamples())
+						.addAll(samples));
+			}
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException("Load worker failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		return merged;
+	}
+	
+	private Map<String, LatencySamples> work(final double readRatio, final long measureFrom, final long deadline) {
+		final var samples = new LinkedHashMap<String, LatencySamples>();
+		final var random = ThreadLocalRandom.current();
+		while (System.nanoTime() < deadline) {
+			final var roll = random.nextDouble();
+			final String endpoint;
+			final HttpRequest request;
+			if (roll >= readRatio) {
+				endpoint = "POST /bookings";
+				final var booking = this.createBooking(LocalDate.now().plusDays(random.nextInt(1, 31)));
+				request = this.jsonRequest("/bookings", booking);
+			} else if (roll < readRatio * 0.4) {
+				endpoint = "GET /products";
+				request = this.getRequest("/products");
+			} else if (roll < readRatio * 0.7) {
+				endpoint = "GET /products/byCategory/{category}";
+				request = this.getRequest("/products/byCategory/" + CATEGORIES[random.nextInt(CATEGORIES.length)]);
+			} else if (roll < readRatio * 0.8) {
+				endpoint = "GET /products/page";
+				request = this.getRequest("/products/page?size=50");
+			} else {
+				endpoint = "GET /boards/available";
+				request = this.getRequest("/boards/available?date=" + LocalDate.now().plusDays(random.nextInt(1, 31))
+												  + "&time=" + randomSlot() + "&numberOfSeats=" + random.nextInt(1, 7));
+			}
+			
+			final var requestStart = System.nanoTime();
+			final var endpointSamples = requestStart >= measureFrom ? samples.computeIfAbsent(endpoint, key -> new LatencySamples()) : null;
+			try {
+				final var status = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+				if (endpointSamples == null) {
+					continue;
+				}
+				if (status >= 500) {
+					endpointSamples.fail();
+				} else if (status >= 400) {
+					endpointSamples.reject();
+				} else {
+					endpointSamples.record(System.nanoTime() - requestStart);
+				}
+			} catch (final IOException e) {
+				if (endpointSamples != null) {
+					endpointSamples.fail();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return samples;
+	}
+	
+	private void printReport(final Map<String, LatencySamples> samples) {
+		// rejected requests are 4xx answers such as booking conflicts, failed ones are 5xx answers and I/O errors
+		final var durationSeconds = this.setting("load.duration-seconds", 60);
+		System.out.printf("%-40s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+						  "endpoint", "ok", "rejected", "failed", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+		samples.forEach((endpoint, endpointSamples) -> {
+			final var percentiles = endpointSamples.percentiles(0.5, 0.99, 0.999, 1.0);
+			System.out.printf("%-40s %10d %10d %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+							  endpoint,
+							  endpointSamples.getCount(),
+							  endpointSamples.getRejected(),
+							  endpointSamples.getFailed(),
+							  (double) endpointSamples.getCount() / durationSeconds,
+							  toMillis(percentiles[0]),
+							  toMillis(percentiles[1]),
+							  toMillis(percentiles[2]),
+							  toMillis(percentiles[3]));
+		});
+	}
+	
+	private ModifyBookingDto createHistoricalBooking(final int index) {
+		// every board gets a few non overlapping bookings per day going back in time, so bulk inserts never conflict
+		final var booking = createModifyBookingDto();
+		final var boardIndex = index % this.boardIds.size();
+		final var slotIndex = index / this.boardIds.size() % HISTORICAL_SLOTS_PER_DAY;
+		booking.setBoardId(this.boardIds.get(boardIndex));
+		booking.setBookingTime(LocalTime.of(12, 0).plusMinutes(135L * slotIndex));
+		booking.setBookingDate(LocalDate.now().minusDays(1L + index / (this.boardIds.size() * HISTORICAL_SLOTS_PER_DAY)));
+		return booking;
+	}
+	
+	private ModifyBookingDto createBooking(final LocalDate bookingDate) {
+		final var booking = createModifyBookingDto();
+		booking.setBookingDate(bookingDate);
+		booking.setBookingTime(randomSlot());
+		booking.setBoardId(this.boardIds.get(ThreadLocalRandom.current().nextInt(this.boardIds.size())));
+		return booking;
+	}
+	
+	private HttpResponse<String> post(final String path, final Object body) throws IOException, InterruptedException {
+		final var response = this.httpClient.send(this.jsonRequest(path, body), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() >= 400) {
+			throw new IllegalStateException("Seeding " + path + " failed with status " + response.statusCode() + ": " + response.body());
+		}
+		return response;
+	}
+	
+	private HttpRequest jsonRequest(final String path, final Object body) {
+		try {
+			return HttpRequest.newBuilder(this.baseUri.resolve(path))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(this.objectMapper.writeValueAsBytes(body)))
+					.build();
+		} catch (final IOException e) {
+			throw new IllegalStateException("Cannot serialize request body", e);
+		}
+	}
+	
+	private HttpRequest getRequest(final String path) {
+		return HttpRequest.newBuilder(this.baseUri.resolve(path)).GET().build();
+	}
+	
+	private int setting(final String key, final int defaultValue) {
+		return this.environment.getProperty(key, Integer.class, defaultValue);
+	}
+	
+	private static LocalTime randomSlot() {
+		return LocalTime.of(12, 0).plusMinutes(15L * ThreadLocalRandom.current().nextInt(40));
+	}
+	
+	private static double toMillis(final long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
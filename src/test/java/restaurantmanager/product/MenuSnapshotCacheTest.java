@@ -0,0 +1,97 @@
+package restaurantmanager.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static restaurantmanager.utils.ProductFixture.createProductEntity;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restaurantmanager.CollectionVersions;
+
+class MenuSnapshotCacheTest {
+	
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final CollectionVersions collectionVersions = new CollectionVersions();
+	
+	private final MenuSnapshotCache menuSnapshotCache = new MenuSnapshotCache(this.objectMapper);
+	
+	@Test
+	void get_Should_ReuseSnapshot_When_VersionIsUnchanged() {
+		// given
+		final var loads = new AtomicInteger();
+		final Supplier<List<ProductDto>> loader = () -> {
+			loads.incrementAndGet();
+			return List.of(ProductMapper.INSTANCE.map(createProductEntity(1L)));
+		};
+		
+		// when
+		final var first = this.menuSnapshotCache.get(this.collectionVersions.get(ProductService.VERSIONED_COLLECTION), loader);
+		final var second = this.menuSnapshotCache.get(this.collectionVersions.get(ProductService.VERSIONED_COLLECTION), loader);
+		
+		// then
+		assertThat(second).isSameAs(first);
+		assertThat(loads).hasValue(1);
+	}
+	
+	@Test
+	void get_Should_RebuildSnapshot_When_VersionChanged() throws Exception {
+		// given
+		final var first = this.menuSnapshotCache.get(this.collectionVersions.get(ProductService.VERSIONED_COLLECTION),
+													 List::of);
+		final var product = ProductMapper.INSTANCE.map(createProductEntity(1L));
+		this.collectionVersions.bump(ProductService.VERSIONED_COLLECTION);
+		
+		// when
+		final var result = this.menuSnapshotCache.get(this.collectionVersions.get(ProductService.VERSIONED_COLLECTION),
+													  () -> List.of(product));
+		
+		// then
+		assertThat(result).isNotSameAs(first);
+		assertThat(result.getCount()).isEqualTo(1);
+		assertThat(this.objectMapper.readValue(result.getJson(), new TypeReference<List<ProductDto>>() {
+		})).containsExactly(product);
+	}
+	
+	@Test
+	void toResponse_Should_ReturnGzipBody_When_ClientAcceptsGzip() throws Exception {
+		// given
+		final var snapshot = this.menuSnapshotCache.get(this.collectionVersions.get(ProductService.VERSIONED_COLLECTION),
+														() -> List.of(ProductMapper.INSTANCE.map(createProductEntity(1L))));
+		
+		// when
+		final var result = snapshot.toResponse("br;q=1.0, gzip;q=0.8");
+		
+		// then
+		assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo(MenuSnapshot.GZIP);
+		try (final var gzipStream = new GZIPInputStream(new ByteArrayInputStream(result.getBody()))) {
+			assertThat(gzipStream.readAllBytes()).isEqualTo(snapshot.getJson());
+		}
+	}
+	
+	@Test
+	void toResponse_Should_ReturnPlainBody_When_ClientRefusesGzip() {
+		// given
+		final var snapshot = this.menuSnapshotCache.get(this.collectionVersions.get(ProductService.VERSIONED_COLLECTION),
+														List::of);
+		
+		// when
+		final var withoutHeader = snapshot.toResponse(null);
+		final var refused = snapshot.toResponse("gzip;q=0, identity");
+		
+		// then
+		assertThat(withoutHeader.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(withoutHeader.getBody()).isEqualTo(snapshot.getJson());
+		assertThat(refused.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(refused.getBody()).isEqualTo(snapshot.getJson());
+	}
+}
@@ -10,6 +10,7 @@ import static restaurantmanager.utils.RandomUtilsFixture.createRandomLong;
 import static restaurantmanager.utils.RandomUtilsFixture.createRandomString;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,11 +21,14 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import restaurantmanager.KeysetPagination;
+
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
@@ -98,6 +102,85 @@ class ProductControllerTestIT {
 				.isEqualTo(products.stream().map(ProductMapper.INSTANCE::map).collect(toUnmodifiableList()));
 	}
 	
+	@Test
+	void getAllProducts_Should_ReturnStatusCode200AndWholeMenu_When_MoreProductsThanUnpagedCapArePresentInDb() {
+		// given
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + PRODUCTS;
+		final var productCount = KeysetPagination.MAX_UNPAGED_ROWS + KeysetPagination.LOAD_PAGE_SIZE / 2;
+		final var products = Stream.generate(() -> createProductEntityWithNulls())
+				.limit(productCount)
+				.collect(toUnmodifiableList());
+		this.productDao.saveAll(products);
+		
+		// when
+		final var result = this.restTemplate.exchange(
+				baseUrl,
+				HttpMethod.GET,
+				HttpEntity.EMPTY,
+				new ParameterizedTypeReference<List<ProductDto>>() {
+				});
+		
+		// then
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getBody()).isNotNull().hasSize(productCount);
+		assertThat(result.getBody()).extracting(ProductDto::getId).isSorted().doesNotHaveDuplicates();
+	}
+	
+	@Test
+	void getAllProducts_Should_ReturnStatusCode304_When_ETagIsStillCurrent() {
+		// given
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + PRODUCTS;
+		final var firstResult = this.restTemplate.exchange(
+				baseUrl,
+				HttpMethod.GET,
+				HttpEntity.EMPTY,
+				new ParameterizedTypeReference<List<ProductDto>>() {
+				});
+		final var headers = new HttpHeaders();
+		headers.setIfNoneMatch(firstResult.getHeaders().getETag());
+		
+		// when
+		final var result = this.restTemplate.exchange(
+				baseUrl,
+				HttpMethod.GET,
+				new HttpEntity<>(headers),
+				new ParameterizedTypeReference<List<ProductDto>>() {
+				});
+		
+		// then
+		assertThat(firstResult.getHeaders().getETag()).isNotNull();
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(result.getBody()).isNull();
+	}
+	
+	@Test
+	void getAllProducts_Should_ReturnStatusCode200AndResultList_When_ProductWasAddedAfterETag() {
+		// given
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + PRODUCTS;
+		final var firstResult = this.restTemplate.exchange(
+				baseUrl,
+				HttpMethod.GET,
+				HttpEntity.EMPTY,
+				new ParameterizedTypeReference<List<ProductDto>>() {
+				});
+		this.restTemplate.postForEntity(baseUrl, createModifyProductDto(), ProductDto.class);
+		final var headers = new HttpHeaders();
+		headers.setIfNoneMatch(firstResult.getHeaders().getETag());
+		
+		// when
+		final var result = this.restTemplate.exchange(
+				baseUrl,
+				HttpMethod.GET,
+				new HttpEntity<>(headers),
+				new ParameterizedTypeReference<List<ProductDto>>() {
+				});
+		
+		// then
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getHeaders().getETag()).isNotEqualTo(firstResult.getHeaders().getETag());
+		assertThat(result.getBody()).isNotNull().hasSize(1);
+	}
+	
 	@Test
 	void getAllProductsByCategory_Should_ReturnStatusCode200AndEmptyList_When_DatabaseIsEmpty() {
 		// given
@@ -225,6 +308,30 @@ class ProductControllerTestIT {
 		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 	
+	@Test
+	void getProductById_Should_ReturnStatusCode200AndNewETag_When_EntityChangedWithoutCollectionVersion() {
+		// given
+		final var saved = this.productDao.save(createProductEntityWithNulls());
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + PRODUCTS + SLASH + saved.getId();
+		final var first = this.restTemplate.exchange(baseUrl, HttpMethod.GET, HttpEntity.EMPTY, ProductDto.class);
+		// the row is changed behind the service, so the collection version stays the same
+		this.productDao.save(saved.toBuilder().name("Changed name").build());
+		final var headers = new HttpHeaders();
+		headers.setIfNoneMatch(first.getHeaders().getETag());
+		
+		// when
+		final var changed = this.restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(headers), ProductDto.class);
+		headers.setIfNoneMatch(changed.getHeaders().getETag());
+		final var unchanged = this.restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(headers), ProductDto.class);
+		
+		// then
+		assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(changed.getBody()).isNotNull();
+		assertThat(changed.getBody().getName()).isEqualTo("Changed name");
+		assertThat(changed.getHeaders().getETag()).isNotEqualTo(first.getHeaders().getETag());
+		assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+	
 	@Test
 	void addProduct_Should_ReturnStatusCode200AndResult_When_SuccessfullyAddedProduct() {
 		// given
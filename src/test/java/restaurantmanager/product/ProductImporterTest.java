@@ -0,0 +1,127 @@
+package restaurantmanager.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersions;
+
+class ProductImporterTest {
+	
+	private final ProductDao productDao = Mockito.mock(ProductDao.class);
+	private final ProductCache productCache = Mockito.mock(ProductCache.class);
+	private final ProductSearchIndex productSearchIndex = Mockito.mock(ProductSearchIndex.class);
+	private final CollectionVersions collectionVersions = Mockito.mock(CollectionVersions.class);
+	private final CacheInvalidationBus cacheInvalidationBus = Mockito.mock(CacheInvalidationBus.class);
+	private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+	private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+	
+	private final ProductImporter productImporter = new ProductImporter(this.productDao,
+																		this.productCache,
+																		this.productSearchIndex,
+																		this.collectionVersions,
+																		this.cacheInvalidationBus,
+																		this.entityManager,
+																		Jackson2ObjectMapperBuilder.json().build(),
+																		this.transactionManager,
+																		2);
+	
+	@Test
+	void importCsv_Should_SaveValidRowsInBatches_When_SomeRowsAreInvalid() throws Exception {
+		// given
+		final var csv = "name,category,description,price,productType\n"
+				+ "Soup,starters,Tomato soup,12.50,food\n"
+				+ ",starters,No name,10.00,food\n"
+				+ "Steak,mains,Rib eye,not-a-price,food\n"
+				+ "Cake,desserts,Cheesecake,9.00,food\n"
+				+ "Tea,drinks,Black tea,5.00,drink\n";
+		
+		// when
+		final var result = this.productImporter.importCsv(toInputStream(csv));
+		
+		// then
+		assertThat(result.getAccepted()).isEqualTo(3L);
+		assertThat(result.getRejected()).isEqualTo(2L);
+		assertThat(result.isCompleted()).isTrue();
+		assertThat(result.getErrors()).hasSize(2);
+		assertThat(result.getErrors().get(0)).startsWith("row 2: ");
+		assertThat(result.getErrors().get(1)).startsWith("row 3: ");
+		verify(this.productDao, times(2)).saveAll(anyList());
+		verify(this.entityManager, times(2)).clear();
+		verify(this.productCache).evictAll();
+		verify(this.productSearchIndex).invalidate();
+	}
+	
+	@Test
+	void importCsv_Should_InvalidateCaches_When_LaterBatchFails() {
+		// given
+		final var csv = "name,category,description,price,productType\n"
+				+ "Soup,starters,Tomato soup,12.50,food\n"
+				+ "Cake,desserts,Cheesecake,9.00,food\n"
+				+ "Tea,drinks,Black tea,5.00,drink\n";
+		when(this.productDao.saveAll(anyList()))
+				.thenReturn(List.of())
+				.thenThrow(new IllegalStateException("database is not available"));
+		
+		// when
+		final var throwable = catchThrowable(() -> this.productImporter.importCsv(toInputStream(csv)));
+		
+		// then
+		assertThat(throwable).isInstanceOf(IllegalStateException.class);
+		verify(this.productCache).evictAll();
+		verify(this.productSearchIndex).invalidate();
+		verify(this.collectionVersions).bump(ProductService.VERSIONED_COLLECTION);
+		verify(this.cacheInvalidationBus).publishAll(ProductService.VERSIONED_COLLECTION);
+	}
+	
+	@Test
+	void importNdjson_Should_StopImport_When_InputIsMalformed() throws Exception {
+		// given
+		final var ndjson = "{\"name\":\"Soup\",\"price\":12.50}\n"
+				+ "{\"name\":\"Steak\",\"price\":\n";
+		
+		// when
+		final var result = this.productImporter.importNdjson(toInputStream(ndjson));
+		
+		// then
+		assertThat(result.getAccepted()).isEqualTo(1L);
+		assertThat(result.isCompleted()).isFalse();
+		assertThat(result.getErrors()).hasSize(1);
+		verify(this.productDao, times(1)).saveAll(anyList());
+	}
+	
+	@Test
+	void importNdjson_Should_SaveNothing_When_AllRowsAreInvalid() throws Exception {
+		// given
+		final var ndjson = "{\"name\":\"Soup\",\"price\":-1}\n";
+		
+		// when
+		final var result = this.productImporter.importNdjson(toInputStream(ndjson));
+		
+		// then
+		assertThat(result.getAccepted()).isZero();
+		assertThat(result.getRejected()).isEqualTo(1L);
+		verify(this.productDao, never()).saveAll(anyList());
+		verify(this.productCache, never()).evictAll();
+	}
+	
+	private static ByteArrayInputStream toInputStream(final String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
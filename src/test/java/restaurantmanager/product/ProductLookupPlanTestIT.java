@@ -0,0 +1,126 @@
+package restaurantmanager.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import restaurantmanager.KeysetPagination;
+
+@SpringBootTest
+class ProductLookupPlanTestIT {
+	
+	private static final int PRODUCTS = 1_000_000;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private ProductDao productDao;
+	
+	@Autowired
+	private StatementRecorder statementRecorder;
+	
+	@BeforeAll
+	static void setUp(@Autowired final JdbcTemplate jdbcTemplate) {
+		// seeding a million rows takes long, so every test of the class reads the same rows
+		jdbcTemplate.update("insert into products (id, name, category, description, price, product_type) "
+				+ "select nextval('products_seq'), 'Product ' || g, 'Category-' || g % 1000, 'Description ' || g, g % 100, "
+				+ "'Type-' || g % 500 from generate_series(1, ?) g", PRODUCTS);
+		jdbcTemplate.execute("analyze products");
+	}
+	
+	@AfterAll
+	static void tearDown(@Autowired final JdbcTemplate jdbcTemplate) {
+		jdbcTemplate.execute("truncate table products");
+	}
+	
+	@BeforeEach
+	void clearStatements() {
+		this.statementRecorder.clear();
+	}
+	
+	@Test
+	void findAllByCategoryIsIgnoreCase_Should_UseExpressionIndex_When_ManyProductsArePresentInDb() {
+		// given
+		final var pageable = KeysetPagination.firstRowsById(KeysetPagination.MAX_UNPAGED_ROWS);
+		this.productDao.findAllByCategoryIsIgnoreCase("CATEGORY-42", pageable);
+		
+		// when
+		final var plan = this.explain(this.statementRecorder.last(), "CATEGORY-42", pageable.getPageSize());
+		
+		// then
+		assertThat(plan)
+				.contains("products_lower_category_idx")
+				.doesNotContain("Seq Scan");
+	}
+	
+	@Test
+	void findAllByProductTypeIsIgnoreCase_Should_UseExpressionIndex_When_ManyProductsArePresentInDb() {
+		// given
+		final var pageable = KeysetPagination.firstRowsById(KeysetPagination.MAX_UNPAGED_ROWS);
+		this.productDao.findAllByProductTypeIsIgnoreCase("type-7", pageable);
+		
+		// when
+		final var plan = this.explain(this.statementRecorder.last(), "type-7", pageable.getPageSize());
+		
+		// then
+		assertThat(plan)
+				.contains("products_lower_product_type_idx")
+				.doesNotContain("Seq Scan");
+	}
+	
+	private String explain(final String sql, final Object... parameters) {
+		return String.join("\n", this.jdbcTemplate.queryForList("explain " + sql, String.class, parameters));
+	}
+	
+	/**
+	 * Records the SQL Hibernate sends, so the plan is taken for the statement the DAO really runs.
+	 */
+	static class StatementRecorder implements StatementInspector {
+		
+		private final List<String> statements = new CopyOnWriteArrayList<>();
+		
+		@Override
+		public String inspect(final String sql) {
+			this.statements.add(sql);
+			return sql;
+		}
+		
+		void clear() {
+			this.statements.clear();
+		}
+		
+		String last() {
+			assertThat(this.statements).isNotEmpty();
+			return this.statements.get(this.statements.size() - 1);
+		}
+	}
+	
+	@TestConfiguration
+	static class StatementRecorderConfiguration {
+		
+		@Bean
+		StatementRecorder statementRecorder() {
+			return new StatementRecorder();
+		}
+		
+		@Bean
+		HibernatePropertiesCustomizer statementRecorderCustomizer(final StatementRecorder statementRecorder) {
+			return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementRecorder);
+		}
+	}
+}
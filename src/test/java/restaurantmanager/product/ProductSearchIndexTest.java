@@ -0,0 +1,77 @@
+package restaurantmanager.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ProductSearchIndexTest {
+	
+	private final ProductDao productDao = Mockito.mock(ProductDao.class);
+	
+	private final ProductSearchIndex productSearchIndex = new ProductSearchIndex(this.productDao, ProductSearchIndex.MEMORY_BACKEND);
+	
+	@Test
+	void search_Should_RankNameMatchesFirst_When_QueryMatchesNameAndDescription() {
+		// given
+		final var soup = createProduct(1L, "Tomato soup", "With basil");
+		final var salad = createProduct(2L, "Caprese salad", "Tomato and mozzarella");
+		final var steak = createProduct(3L, "Rib eye steak", "With fries");
+		when(this.productDao.findAll()).thenReturn(List.of(salad, soup, steak));
+		
+		// when
+		final var result = this.productSearchIndex.search("toma", 10);
+		
+		// then
+		assertThat(result).containsExactly(ProductMapper.INSTANCE.map(soup), ProductMapper.INSTANCE.map(salad));
+	}
+	
+	@Test
+	void search_Should_MatchAllTokensIgnoringAccents_When_QueryHasSeveralWords() {
+		// given
+		final var creme = createProduct(1L, "Crème brûlée", "Vanilla custard");
+		final var cremeSoup = createProduct(2L, "Crème of mushrooms", "Soup");
+		when(this.productDao.findAll()).thenReturn(List.of(creme, cremeSoup));
+		
+		// when
+		final var result = this.productSearchIndex.search("CREME brul", 10);
+		
+		// then
+		assertThat(result).containsExactly(ProductMapper.INSTANCE.map(creme));
+	}
+	
+	@Test
+	void search_Should_ReflectChanges_When_ProductsAreSavedAndRemovedAfterLoading() {
+		// given
+		final var soup = createProduct(1L, "Tomato soup", "With basil");
+		when(this.productDao.findAll()).thenReturn(List.of(soup));
+		this.productSearchIndex.search("soup", 10);
+		
+		final var renamedSoup = ProductMapper.INSTANCE.map(createProduct(1L, "Onion soup", "With croutons"));
+		final var tomatoSalad = ProductMapper.INSTANCE.map(createProduct(2L, "Tomato salad", "With onion"));
+		
+		// when
+		this.productSearchIndex.productsSaved(List.of(renamedSoup, tomatoSalad));
+		this.productSearchIndex.productRemoved(2L);
+		final var result = this.productSearchIndex.search("tomato", 10);
+		final var onionResult = this.productSearchIndex.search("onion", 10);
+		
+		// then
+		assertThat(result).isEmpty();
+		assertThat(onionResult).containsExactly(renamedSoup);
+		verify(this.productDao, times(1)).findAll();
+	}
+	
+	private static Product createProduct(final Long id, final String name, final String description) {
+		return Product.builder()
+				.id(id)
+				.name(name)
+				.description(description)
+				.build();
+	}
+}
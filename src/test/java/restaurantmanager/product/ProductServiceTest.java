@@ -4,6 +4,9 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,6 +20,8 @@ import static restaurantmanager.utils.RandomUtilsFixture.createRandomString;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,7 +29,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
+import restaurantmanager.BadRequestException;
+import restaurantmanager.ByIdsLookup;
+import restaurantmanager.CacheInvalidationBus;
+import restaurantmanager.CollectionVersions;
+import restaurantmanager.EntityCacheEvictor;
+import restaurantmanager.KeysetPagination;
 import restaurantmanager.NotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +47,12 @@ class ProductServiceTest {
 	private static final String PRODUCT_TYPE = createRandomString();
 	
 	private final ProductDao productDao = Mockito.mock(ProductDao.class);
+	private final ProductCache productCache = Mockito.spy(new ProductCache(16, 60));
+	private final EntityCacheEvictor entityCacheEvictor = Mockito.mock(EntityCacheEvictor.class);
+	private final ProductSearchIndex productSearchIndex = Mockito.mock(ProductSearchIndex.class);
+	private final CollectionVersions collectionVersions = Mockito.spy(new CollectionVersions());
+	private final MenuSnapshotCache menuSnapshotCache = Mockito.spy(new MenuSnapshotCache(Jackson2ObjectMapperBuilder.json().build()));
+	private final CacheInvalidationBus cacheInvalidationBus = Mockito.mock(CacheInvalidationBus.class);
 	
 	@InjectMocks
 	private ProductService productService;
@@ -46,7 +65,7 @@ class ProductServiceTest {
 	@Test
 	void getAllProducts_Should_ReturnEmptyList_When_EntitiesAreNotPresentInDb() {
 		// given
-		when(this.productDao.findAll()).thenReturn(emptyList());
+		when(this.productDao.findAllPageByPage()).thenReturn(emptyList());
 		
 		// when
 		final var result = this.productService.getAllProducts();
@@ -62,7 +81,7 @@ class ProductServiceTest {
 										  createProductEntity(2L),
 										  createProductEntity(3L));
 		
-		when(this.productDao.findAll()).thenReturn(productsToAdd);
+		when(this.productDao.findAllPageByPage()).thenReturn(productsToAdd);
 		
 		// when
 		final var result = this.productService.getAllProducts();
@@ -71,10 +90,63 @@ class ProductServiceTest {
 		assertEquals(productsToAdd, result);
 	}
 	
+	@Test
+	void getAllProducts_Should_ReadDbOnce_When_CalledRepeatedly() {
+		// given
+		when(this.productDao.findAllPageByPage()).thenReturn(List.of(createProductEntity(1L)));
+		
+		// when
+		this.productService.getAllProducts();
+		final var result = this.productService.getAllProducts();
+		
+		// then
+		assertThat(result).hasSize(1);
+		verify(this.productDao, times(1)).findAllPageByPage();
+		assertThat(this.productService.getCacheStats().getHits()).isEqualTo(1L);
+		assertThat(this.productService.getCacheStats().getMisses()).isEqualTo(1L);
+	}
+	
+	@Test
+	void getMenuSnapshot_Should_ReadDbAgain_When_ProductWasAdded() {
+		// given
+		final var productToAdd = createModifyProductDto();
+		when(this.productDao.findAllPageByPage()).thenReturn(List.of(createProductEntity(1L)));
+		when(this.productDao.save(ProductMapper.INSTANCE.mapFromModify(productToAdd))).thenReturn(createProductEntityFromModifyDto(2L, productToAdd));
+		
+		// when
+		final var first = this.productService.getMenuSnapshot();
+		final var unchanged = this.productService.getMenuSnapshot();
+		this.productService.addProduct(productToAdd);
+		final var result = this.productService.getMenuSnapshot();
+		
+		// then
+		assertThat(unchanged).isSameAs(first);
+		assertThat(result).isNotSameAs(first);
+		assertThat(result.getVersion().getETag()).isNotEqualTo(first.getVersion().getETag());
+		verify(this.productDao, times(2)).findAllPageByPage();
+	}
+	
+	@Test
+	void getAllProducts_Should_ReadDbAgain_When_ProductWasAdded() {
+		// given
+		final var productToAdd = createModifyProductDto();
+		when(this.productDao.findAllPageByPage()).thenReturn(emptyList());
+		when(this.productDao.save(ProductMapper.INSTANCE.mapFromModify(productToAdd)))
+				.thenReturn(createProductEntityFromModifyDto(1L, productToAdd));
+		
+		// when
+		this.productService.getAllProducts();
+		this.productService.addProduct(productToAdd);
+		this.productService.getAllProducts();
+		
+		// then
+		verify(this.productDao, times(2)).findAllPageByPage();
+	}
+	
 	@Test
 	void getAllProductsByCategory_Should_ReturnEmptyList_When_EntitiesAreNotPresentInDb() {
 		// given
-		when(this.productDao.findAllByCategoryIsIgnoreCase(CATEGORY)).thenReturn(emptyList());
+		when(this.productDao.findAllByCategoryIsIgnoreCase(eq(CATEGORY), any(Pageable.class))).thenReturn(emptyList());
 		
 		// when
 		final var result = this.productService.getAllProductsByCategory(CATEGORY);
@@ -90,7 +162,7 @@ class ProductServiceTest {
 										  createProductEntity(2L, CATEGORY, PRODUCT_TYPE),
 										  createProductEntity(3L, CATEGORY, PRODUCT_TYPE));
 		
-		when(this.productDao.findAllByCategoryIsIgnoreCase(CATEGORY)).thenReturn(productsToAdd);
+		when(this.productDao.findAllByCategoryIsIgnoreCase(eq(CATEGORY), any(Pageable.class))).thenReturn(productsToAdd);
 		
 		// when
 		final var result = this.productService.getAllProductsByCategory(CATEGORY);
@@ -102,7 +174,7 @@ class ProductServiceTest {
 	@Test
 	void getAllProductsByProductType_Should_ReturnEmptyList_When_EntitiesAreNotPresentInDb() {
 		// given
-		when(this.productDao.findAllByProductTypeIsIgnoreCase(PRODUCT_TYPE)).thenReturn(emptyList());
+		when(this.productDao.findAllByProductTypeIsIgnoreCase(eq(PRODUCT_TYPE), any(Pageable.class))).thenReturn(emptyList());
 		
 		// when
 		final var result = this.productService.getAllProductsByProductType(PRODUCT_TYPE);
@@ -118,7 +190,7 @@ class ProductServiceTest {
 										  createProductEntity(2L, PRODUCT_TYPE),
 										  createProductEntity(3L, PRODUCT_TYPE));
 		
-		when(this.productDao.findAllByProductTypeIsIgnoreCase(PRODUCT_TYPE)).thenReturn(productsToAdd);
+		when(this.productDao.findAllByProductTypeIsIgnoreCase(eq(PRODUCT_TYPE), any(Pageable.class))).thenReturn(productsToAdd);
 		
 		// when
 		final var result = this.productService.getAllProductsByProductType(PRODUCT_TYPE);
@@ -127,6 +199,64 @@ class ProductServiceTest {
 		assertEquals(productsToAdd, result);
 	}
 	
+	@Test
+	void getProductsPage_Should_ReturnNextCursor_When_MoreEntitiesArePresentInDb() {
+		// given
+		when(this.productDao.findAllByIdGreaterThan(eq(0L), any(Pageable.class)))
+				.thenReturn(List.of(createProductEntity(1L), createProductEntity(2L), createProductEntity(3L)));
+		
+		// when
+		final var result = this.productService.getProductsPage(null, 2);
+		
+		// then
+		assertThat(result.getItems()).extracting(ProductDto::getId).containsExactly(1L, 2L);
+		assertThat(KeysetPagination.decodeCursor(result.getNextCursor())).isEqualTo(2L);
+	}
+	
+	@Test
+	void getProductsPage_Should_ReturnNoCursor_When_LastPageIsReached() {
+		// given
+		when(this.productDao.findAllByIdGreaterThan(eq(2L), any(Pageable.class)))
+				.thenReturn(List.of(createProductEntity(3L)));
+		
+		// when
+		final var result = this.productService.getProductsPage(KeysetPagination.encodeCursor(2L), 2);
+		
+		// then
+		assertThat(result.getItems()).extracting(ProductDto::getId).containsExactly(3L);
+		assertThat(result.getNextCursor()).isNull();
+	}
+	
+	@Test
+	void getProductsByIds_Should_ReturnResultInRequestOrder_When_SomeEntitiesNotExist() {
+		// given
+		final var first = createProductEntity(1L);
+		final var third = createProductEntity(3L);
+		when(this.productDao.findAllById(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+		
+		// when
+		final var result = this.productService.getProductsByIds(List.of(3L, 2L, 1L, 3L));
+		
+		// then
+		assertThat(result.getItems()).containsExactly(ProductMapper.INSTANCE.map(third), ProductMapper.INSTANCE.map(first));
+		assertThat(result.getMissingIds()).containsExactly(2L);
+	}
+	
+	@Test
+	void getProductsByIds_Should_ThrowBadRequestException_When_TooManyIdsAreRequested() {
+		// given
+		final var ids = LongStream.rangeClosed(1L, ByIdsLookup.MAX_IDS + 1L)
+				.boxed()
+				.collect(toUnmodifiableList());
+		
+		// when
+		final var throwable = catchThrowable(() -> this.productService.getProductsByIds(ids));
+		
+		// then
+		assertThat(throwable).isInstanceOf(BadRequestException.class);
+		verify(this.productDao, never()).findAllById(any());
+	}
+	
 	@Test
 	void getProductById_Should_ReturnResult_When_EntityExists() {
 		// given
@@ -171,19 +301,49 @@ class ProductServiceTest {
 		assertProduct(result, productToAdd);
 	}
 	
+	@Test
+	void addProduct_Should_ChangeCollectionVersion() {
+		// given
+		final var productToAdd = createModifyProductDto();
+		final var versionBefore = this.productService.getVersion();
+		
+		// when
+		when(this.productDao.save(ProductMapper.INSTANCE.mapFromModify(productToAdd))).thenReturn(createProductEntityFromModifyDto(1L, productToAdd));
+		this.productService.addProduct(productToAdd);
+		
+		// then
+		assertThat(this.productService.getVersion().getETag()).isNotEqualTo(versionBefore.getETag());
+		verify(this.collectionVersions).bump(ProductService.VERSIONED_COLLECTION);
+	}
+	
+	@Test
+	void addProducts_Should_SaveAllEntities() {
+		// given
+		final var firstProductToAdd = createModifyProductDto();
+		final var secondProductToAdd = createModifyProductDto();
+		
+		// when
+		when(this.productDao.saveAll(List.of(ProductMapper.INSTANCE.mapFromModify(firstProductToAdd), ProductMapper.INSTANCE.mapFromModify(secondProductToAdd))))
+				.thenReturn(List.of(createProductEntityFromModifyDto(1L, firstProductToAdd), createProductEntityFromModifyDto(2L, secondProductToAdd)));
+		final var result = this.productService.addProducts(List.of(firstProductToAdd, secondProductToAdd));
+		
+		// then
+		assertThat(result).extracting(ProductDto::getId).containsExactly(1L, 2L);
+		assertProduct(result.get(0), firstProductToAdd);
+		assertProduct(result.get(1), secondProductToAdd);
+		verify(this.productCache).evictAll();
+	}
+	
 	@Test
 	void updateProduct_Should_UpdateProduct() {
 		// given
 		final var id = 1L;
-		final var existingProduct = createProductEntity(id);
-		when(this.productDao.findById(id)).thenReturn(Optional.of(existingProduct));
-		
 		final var productToUpdate = createModifyProductDto();
 		
 		// when
 		final var entity = createProductEntityFromModifyDto(id, productToUpdate);
 		
-		when(this.productDao.save(entity)).thenReturn(entity);
+		when(this.productDao.update(entity)).thenReturn(1);
 		final var result = this.productService.updateProduct(id, productToUpdate);
 		
 		// then
@@ -195,7 +355,7 @@ class ProductServiceTest {
 	void updateProduct_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.productDao.findById(id)).thenReturn(Optional.empty());
+		when(this.productDao.update(any())).thenReturn(0);
 		
 		// when
 		final var throwable = catchThrowable(() -> this.productService.updateProduct(id, createModifyProductDtoWithNulls()));
@@ -204,25 +364,65 @@ class ProductServiceTest {
 		assertThat(throwable).isInstanceOf(NotFoundException.class).hasMessage("Product with id=" + id + " not found");
 	}
 	
+	@Test
+	void patchProduct_Should_ChangeOnlyGivenFields() {
+		// given
+		final var id = 1L;
+		final var existingProduct = createProductEntity(id);
+		final var expectedProduct = ProductMapper.INSTANCE.map(existingProduct).toBuilder();
+		when(this.productDao.patchById(eq(id), any())).thenAnswer(invocation -> {
+			final Consumer<Product> patch = invocation.getArgument(1);
+			patch.accept(existingProduct);
+			return Optional.of(existingProduct);
+		});
+		
+		final var productToPatch = createModifyProductDtoWithNulls();
+		productToPatch.setName(createRandomString());
+		
+		// when
+		final var result = this.productService.patchProduct(id, productToPatch);
+		
+		// then
+		assertThat(result).isEqualTo(expectedProduct.name(productToPatch.getName()).build());
+	}
+	
+	@Test
+	void patchProduct_Should_ThrowNotFoundException_When_EntityNotExist() {
+		// given
+		final var id = new Random().nextLong();
+		when(this.productDao.patchById(eq(id), any())).thenReturn(Optional.empty());
+		
+		// when
+		final var throwable = catchThrowable(() -> this.productService.patchProduct(id, createModifyProductDtoWithNulls()));
+		
+		// then
+		assertThat(throwable).isInstanceOf(NotFoundException.class)
+				.hasMessage("Product with id=" + id + " not found");
+	}
+	
 	@Test
 	void deleteProductById_Should_RemoveEntity_When_EntityExists() {
 		// given
 		final var id = 1L;
 		final var product = createProductEntity(id);
-		when(this.productDao.findById(id)).thenReturn(Optional.of(product));
+		when(this.productDao.deleteReturningById(id)).thenReturn(Optional.of(product));
 		
 		// when
-		this.productService.deleteProductById(id);
+		final var result = this.productService.deleteProductById(id);
 		
 		//then
-		verify(this.productDao, times(1)).deleteById(id);
+		assertThat(result).isEqualTo(ProductMapper.INSTANCE.map(product));
+		verify(this.productDao, never()).findById(id);
+		verify(this.entityCacheEvictor).evict(Product.class, id);
+		verify(this.entityCacheEvictor).evictQueryRegion(ProductDao.QUERY_CACHE_REGION);
+		verify(this.cacheInvalidationBus).publish(ProductService.VERSIONED_COLLECTION, id, product.getCategory(), product.getProductType());
 	}
 	
 	@Test
 	void deleteProductById_Should_ThrowNotFoundException_When_EntityExists() {
 		// given
 		final var id = new Random().nextLong();
-		when(this.productDao.findById(id)).thenReturn(Optional.empty());
+		when(this.productDao.deleteReturningById(id)).thenReturn(Optional.empty());
 		
 		// when
 		final var throwable = catchThrowable(() -> this.productService.deleteProductById(id));
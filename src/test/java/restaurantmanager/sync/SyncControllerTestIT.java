@@ -0,0 +1,138 @@
+package restaurantmanager.sync;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static restaurantmanager.utils.ProductFixture.createProductEntityWithNulls;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import restaurantmanager.product.ProductDao;
+import restaurantmanager.product.ProductDto;
+import restaurantmanager.product.ProductMapper;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "restaurantmanager.sync.page-size=" + SyncControllerTestIT.PAGE_SIZE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class SyncControllerTestIT {
+	
+	static final int PAGE_SIZE = 2;
+	
+	private static final String HTTP_LOCAL_HOST = "http://localhost:";
+	
+	private static final String SLASH = "/";
+	
+	private static final String SYNC = "sync";
+	private static final String SINCE = "?since=";
+	
+	@Autowired
+	private ProductDao productDao;
+	
+	@Autowired
+	private TestRestTemplate restTemplate;
+	
+	@LocalServerPort
+	private int randomServerPort;
+	
+	@BeforeEach
+	void setUp() {
+		this.productDao.deleteAll();
+	}
+	
+	@Test
+	void getChanges_Should_ReturnStatusCode200AndAllRows_When_TokenIsMissing() {
+		// given
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + SYNC;
+		final var product = this.productDao.save(createProductEntityWithNulls());
+		
+		// when
+		final var result = this.restTemplate.getForEntity(baseUrl, SyncDto.class);
+		
+		// then
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getBody()).isNotNull();
+		assertThat(result.getBody().getProducts()).containsExactly(ProductMapper.INSTANCE.map(product));
+		assertThat(result.getBody().getDeletions()).isEmpty();
+		assertThat(result.getBody().getToken()).isNotBlank();
+	}
+	
+	@Test
+	void getChanges_Should_ReturnStatusCode200AndOnlyChanges_When_TokenIsGiven() {
+		// given
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + SYNC;
+		final var unchanged = this.productDao.save(createProductEntityWithNulls());
+		final var removed = this.productDao.save(createProductEntityWithNulls());
+		final var token = this.restTemplate.getForEntity(baseUrl, SyncDto.class).getBody().getToken();
+		this.productDao.deleteById(removed.getId());
+		final var added = this.productDao.save(createProductEntityWithNulls());
+		
+		// when
+		final var result = this.restTemplate.getForEntity(baseUrl + SINCE + token, SyncDto.class);
+		
+		// then
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getBody()).isNotNull();
+		assertThat(result.getBody().getProducts()).containsExactly(ProductMapper.INSTANCE.map(added))
+				.doesNotContain(ProductMapper.INSTANCE.map(unchanged));
+		assertThat(result.getBody().getDeletions()).containsExactly(SyncDeletionDto.builder()
+																			.entityType(SyncTombstone.EntityType.PRODUCT)
+																			.id(removed.getId())
+																			.build());
+	}
+	
+	@Test
+	void getChanges_Should_ReturnAllRowsAcrossSeveralResponses_When_MoreRowsChangedThanPageSize() {
+		// given
+		final var baseUrl = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + SYNC;
+		final var products = this.productDao.saveAll(Stream.generate(() -> createProductEntityWithNulls())
+				.limit(PAGE_SIZE * 2 + 1)
+				.collect(toUnmodifiableList()));
+		final var received = new ArrayList<ProductDto>();
+		var responses = 0;
+		
+		// when
+		var result = this.restTemplate.getForEntity(baseUrl, SyncDto.class).getBody();
+		while (true) {
+			assertThat(result).isNotNull();
+			received.addAll(result.getProducts());
+			responses++;
+			if (!result.getHasMore()) {
+				break;
+			}
+			result = this.restTemplate.getForEntity(baseUrl + SINCE + result.getToken(), SyncDto.class).getBody();
+		}
+		
+		// then
+		// other tables may hold rows of earlier tests, which can add responses
+		assertThat(responses).isGreaterThanOrEqualTo(3);
+		assertThat(received).containsExactlyElementsOf(products.stream()
+				.map(ProductMapper.INSTANCE::map)
+				.collect(toUnmodifiableList()));
+		final var next = this.restTemplate.getForEntity(baseUrl + SINCE + result.getToken(), SyncDto.class).getBody();
+		assertThat(next).isNotNull();
+		assertThat(next.getProducts()).isEmpty();
+	}
+	
+	@Test
+	void getChanges_Should_ReturnStatusCode400_When_TokenIsNotValid() {
+		// given
+		final var url = HTTP_LOCAL_HOST + this.randomServerPort + SLASH + SYNC + SINCE + "invalid!";
+		
+		// when
+		final var result = this.restTemplate.getForEntity(url, String.class);
+		
+		// then
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
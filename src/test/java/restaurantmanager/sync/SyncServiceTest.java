@@ -0,0 +1,143 @@
+package restaurantmanager.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static restaurantmanager.utils.BoardFixture.createBoardEntity;
+import static restaurantmanager.utils.ProductFixture.createProductEntity;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import restaurantmanager.BadRequestException;
+import restaurantmanager.board.BoardDao;
+import restaurantmanager.board.BoardMapper;
+import restaurantmanager.booking.BookingDao;
+import restaurantmanager.employee.EmployeeDao;
+import restaurantmanager.product.ProductDao;
+import restaurantmanager.product.ProductMapper;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+	
+	private static final int PAGE_SIZE = 2;
+	
+	private final ProductDao productDao = Mockito.mock(ProductDao.class);
+	private final BoardDao boardDao = Mockito.mock(BoardDao.class);
+	private final EmployeeDao employeeDao = Mockito.mock(EmployeeDao.class);
+	private final BookingDao bookingDao = Mockito.mock(BookingDao.class);
+	private final SyncTombstoneDao syncTombstoneDao = Mockito.mock(SyncTombstoneDao.class);
+	
+	private final SyncService syncService = new SyncService(this.productDao,
+															this.boardDao,
+															this.employeeDao,
+															this.bookingDao,
+															this.syncTombstoneDao,
+															PAGE_SIZE);
+	
+	@Test
+	void getChangesSince_Should_ReturnAllRowsWithoutDeletions_When_TokenIsMissing() {
+		// given
+		final var product = createProductEntity(1L);
+		when(this.syncTombstoneDao.findCompletedSyncVersion()).thenReturn(42L);
+		when(this.productDao.findAllChangedSince(0L, 0L, PAGE_SIZE + 1)).thenReturn(List.of(product));
+		
+		// when
+		final var result = this.syncService.getChangesSince(null);
+		
+		// then
+		assertThat(result.getProducts()).containsExactly(ProductMapper.INSTANCE.map(product));
+		assertThat(result.getBoards()).isEmpty();
+		assertThat(result.getDeletions()).isEmpty();
+		assertThat(result.getHasMore()).isFalse();
+		assertThat(SyncCursor.decode(result.getToken()).getSince()).isEqualTo(42L);
+		verify(this.syncTombstoneDao, never()).findAllChangedSince(anyLong(), anyLong(), anyInt());
+	}
+	
+	@Test
+	void getChangesSince_Should_ReturnChangedRowsAndDeletions_When_TokenIsGiven() {
+		// given
+		final var board = createBoardEntity(2L);
+		final var tombstone = SyncTombstone.builder()
+				.id(1L)
+				.entityType(SyncTombstone.EntityType.PRODUCT)
+				.entityId(1L)
+				.syncVersion(50L)
+				.build();
+		when(this.syncTombstoneDao.findCompletedSyncVersion()).thenReturn(60L);
+		when(this.boardDao.findAllChangedSince(42L, 0L, PAGE_SIZE + 1)).thenReturn(List.of(board));
+		when(this.syncTombstoneDao.findAllChangedSince(42L, 0L, PAGE_SIZE + 1)).thenReturn(List.of(tombstone));
+		
+		// when
+		final var result = this.syncService.getChangesSince(SyncCursor.encodeSyncVersion(42L));
+		
+		// then
+		assertThat(result.getProducts()).isEmpty();
+		assertThat(result.getBoards()).containsExactly(BoardMapper.INSTANCE.map(board));
+		assertThat(result.getDeletions()).containsExactly(SyncDeletionDto.builder()
+																  .entityType(SyncTombstone.EntityType.PRODUCT)
+																  .id(1L)
+																  .build());
+		assertThat(SyncCursor.decode(result.getToken()).getSince()).isEqualTo(60L);
+	}
+	
+	@Test
+	void getChangesSince_Should_ReturnContinuationToken_When_MoreRowsChangedThanPageSize() {
+		// given
+		final var products = List.of(createProductEntity(1L), createProductEntity(2L), createProductEntity(3L));
+		when(this.syncTombstoneDao.findCompletedSyncVersion()).thenReturn(42L);
+		when(this.productDao.findAllChangedSince(0L, 0L, PAGE_SIZE + 1)).thenReturn(products);
+		
+		// when
+		final var result = this.syncService.getChangesSince(null);
+		
+		// then
+		final var next = SyncCursor.decode(result.getToken());
+		assertThat(result.getProducts()).containsExactly(ProductMapper.INSTANCE.map(products.get(0)), ProductMapper.INSTANCE.map(products.get(1)));
+		assertThat(result.getHasMore()).isTrue();
+		assertThat(next.getSince()).isEqualTo(0L);
+		assertThat(next.getCompleted()).isEqualTo(42L);
+		assertThat(next.getProductId()).isEqualTo(2L);
+		assertThat(next.getBoardId()).isEqualTo(0L);
+	}
+	
+	@Test
+	void getChangesSince_Should_ContinueAfterLastIdsAndKeepCompletedVersion_When_ContinuationTokenIsGiven() {
+		// given
+		final var token = SyncCursor.continuation(42L, 60L, 2L, 5L, 0L, 0L, 7L).encode();
+		final var product = createProductEntity(3L);
+		when(this.productDao.findAllChangedSince(42L, 2L, PAGE_SIZE + 1)).thenReturn(List.of(product));
+		
+		// when
+		final var result = this.syncService.getChangesSince(token);
+		
+		// then
+		assertThat(result.getProducts()).containsExactly(ProductMapper.INSTANCE.map(product));
+		assertThat(result.getHasMore()).isFalse();
+		assertThat(SyncCursor.decode(result.getToken()).getSince()).isEqualTo(60L);
+		verify(this.boardDao).findAllChangedSince(42L, 5L, PAGE_SIZE + 1);
+		verify(this.syncTombstoneDao).findAllChangedSince(42L, 7L, PAGE_SIZE + 1);
+		verify(this.syncTombstoneDao, never()).findCompletedSyncVersion();
+	}
+	
+	@Test
+	void getChangesSince_Should_ThrowBadRequestException_When_TokenIsNotValid() {
+		// given
+		final var token = "not a token";
+		
+		// when
+		final var throwable = catchThrowable(() -> this.syncService.getChangesSince(token));
+		
+		// then
+		assertThat(throwable).isInstanceOf(BadRequestException.class);
+		verify(this.syncTombstoneDao, never()).findCompletedSyncVersion();
+	}
+}
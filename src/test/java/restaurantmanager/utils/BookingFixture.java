@@ -1,6 +1,7 @@
 package restaurantmanager.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static restaurantmanager.utils.RandomUtilsFixture.createRandomId;
 import static restaurantmanager.utils.RandomUtilsFixture.createRandomLong;
 import static restaurantmanager.utils.RandomUtilsFixture.createRandomString;
 
@@ -24,7 +25,7 @@ public abstract class BookingFixture {
 				.bookingDate(LocalDate.now().plusDays(10L))
 				.bookingTime(LocalTime.of(17, 30))
 				.createdAt(LocalDateTime.now())
-				.boardId(createRandomLong())
+				.boardId(createRandomId())
 				.employeeId(createRandomLong())
 				.personalData(createRandomString())
 				.phoneNumber(createRandomString())
@@ -55,7 +56,7 @@ public abstract class BookingFixture {
 				.bookingDate(LocalDate.now().plusDays(10L))
 				.bookingTime(LocalTime.of(17, 30))
 				.createdAt(LocalDateTime.now())
-				.boardId(createRandomLong())
+				.boardId(createRandomId())
 				.employeeId(createRandomLong())
 				.personalData(createRandomString())
 				.phoneNumber(createRandomString())
@@ -13,6 +13,10 @@ public abstract class RandomUtilsFixture {
 		return ThreadLocalRandom.current().nextLong(BOUND);
 	}
 	
+	public static Long createRandomId() {
+		return ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+	}
+	
 	public static String createRandomString() {
 		return UUID.randomUUID().toString().replace("-", "");
 	}